@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static utils.Constants.REPORTS_DIR;
+
+/**
+ * Runs the benchmarks in headless Chrome with the GC profiler, so every result carries
+ * per-operation latency and allocation rate. Standard JMH command line options are accepted.
+ *
+ * Usage:
+ * - mvn -Pbenchmark verify
+ * - mvn -Pbenchmark verify -Djmh.args="PageInteractionBenchmark.clickButton -i 3"
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Path resultFile = Paths.get(REPORTS_DIR, "jmh-result.json");
+        Files.createDirectories(resultFile.getParent());
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsPrepend("-Dheadless=true", "-DblockingProfile=none")
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString());
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import core.DriverManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of getting a browser for a test: a cold session with its own driver process, a cold session on the
+ * shared driver service, and a lease from the session pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Threads(1)
+public class DriverCreationBenchmark {
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-DsessionPool=false", "-DsharedDriverService=false"})
+    public WebDriver createAndQuitDriverWithOwnService() throws Exception {
+        DriverManager driverManager = new DriverManager();
+        WebDriver driver = DriverManager.getDriver();
+        driverManager.quit();
+        return driver;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-DsessionPool=false", "-DsharedDriverService=true"})
+    public WebDriver createAndQuitDriver() throws Exception {
+        DriverManager driverManager = new DriverManager();
+        WebDriver driver = DriverManager.getDriver();
+        driverManager.quit();
+        return driver;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-DsessionPool=true", "-DsessionPoolSize=1"})
+    public WebDriver leaseAndReleaseDriver() throws Exception {
+        DriverManager driverManager = new DriverManager();
+        WebDriver driver = DriverManager.getDriver();
+        driverManager.release();
+        return driver;
+    }
+}
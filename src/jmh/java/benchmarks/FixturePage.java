@@ -0,0 +1,81 @@
+package benchmarks;
+
+import core.BasePage;
+import org.openqa.selenium.By;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+
+class FixturePageSelector {
+    public static final By txtName = By.id("name");
+    public static final By btnSubmit = By.id("submit");
+    public static final By lblMessage = By.id("message");
+    public static final By lblTitle = By.id("title");
+    public static final By lblHoverTarget = By.id("hover-target");
+    public static final By itmSource = By.id("source");
+    public static final By areOrigin = By.id("origin");
+    public static final By areTarget = By.id("target");
+    public static final By lnkOpenWindow = By.id("open-window");
+}
+
+/**
+ * Page Object for the local benchmark fixture. Exposes the protected BasePage primitives
+ * so benchmarks measure exactly what page objects call.
+ */
+public class FixturePage extends BasePage {
+
+    public static String fixtureUrl(String fileName) {
+        URL resource = FixturePage.class.getResource("/fixtures/" + fileName);
+        if (resource == null) {
+            throw new IllegalStateException("Benchmark fixture not found on classpath: " + fileName);
+        }
+        try {
+            return Paths.get(resource.toURI()).toUri().toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid fixture location: " + resource, e);
+        }
+    }
+
+    public void open() {
+        openSite(fixtureUrl("interactions.html"));
+    }
+
+    public void typeName(String name) {
+        enterText(FixturePageSelector.txtName, name);
+    }
+
+    public void clearName() {
+        executeJavaScript("document.getElementById('name').value = '';");
+    }
+
+    public void submit() {
+        clickButton(FixturePageSelector.btnSubmit);
+    }
+
+    public String readMessage() {
+        return getElementText(FixturePageSelector.lblMessage);
+    }
+
+    public String readTitleAttribute() {
+        return getElementAttribute(FixturePageSelector.lblTitle, "id");
+    }
+
+    public void hover() {
+        hoverElement(FixturePageSelector.lblHoverTarget);
+    }
+
+    public void dragToTarget() {
+        dragAndDrop(FixturePageSelector.itmSource, FixturePageSelector.areTarget);
+    }
+
+    public void dragToOrigin() {
+        dragAndDrop(FixturePageSelector.itmSource, FixturePageSelector.areOrigin);
+    }
+
+    public void openAndCloseWindow() {
+        clickButton(FixturePageSelector.lnkOpenWindow);
+        swithToNewWindow();
+        switchBackToOriginalWindow();
+    }
+}
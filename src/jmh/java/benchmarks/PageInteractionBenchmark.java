@@ -0,0 +1,82 @@
+package benchmarks;
+
+import core.DriverManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the BasePage primitives against the local fixture page in one browser session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class PageInteractionBenchmark {
+    private DriverManager driverManager;
+    private FixturePage page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        driverManager = new DriverManager();
+        page = new FixturePage();
+        page.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driverManager.quit();
+    }
+
+    @Benchmark
+    public void enterText() {
+        page.clearName();
+        page.typeName("benchmark");
+    }
+
+    @Benchmark
+    public void clickButton() {
+        page.submit();
+    }
+
+    @Benchmark
+    public String getElementText() {
+        return page.readMessage();
+    }
+
+    @Benchmark
+    public String getElementAttribute() {
+        return page.readTitleAttribute();
+    }
+
+    @Benchmark
+    public void hoverElement() {
+        page.hover();
+    }
+
+    @Benchmark
+    public void dragAndDrop() {
+        page.dragToTarget();
+        page.dragToOrigin();
+    }
+
+    @Benchmark
+    public void switchWindow() {
+        page.openAndCloseWindow();
+    }
+}
@@ -0,0 +1,275 @@
+package core;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import utils.Helper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import static utils.Constants.REPORTS_DIR;
+
+/**
+ * ActionMetrics records the duration of every page object action and driver lifecycle step in
+ * fixed-bucket histograms tagged by page class, action and locator. Recording is two LongAdder
+ * increments, so it is cheap enough to stay on for every run. At the end of each fork the histograms
+ * are written to target/reports/metrics as Prometheus exposition text and JSON.
+ * Locator labels are normalized to keep the number of series bounded: URLs are reduced to their path with
+ * numeric segments replaced, long labels are truncated, and once a page action has
+ * {@value #MAX_LOCATORS_PER_ACTION} distinct locators further ones are counted under {@value #OTHER_LOCATOR}.
+ */
+public final class ActionMetrics {
+    /** Histogram bucket upper bounds in milliseconds */
+    private static final double[] BUCKETS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+    private static final String METRIC_NAME = "selenium_action_duration_seconds";
+    static final int MAX_LOCATORS_PER_ACTION = 50;
+    static final int MAX_LOCATOR_LENGTH = 120;
+    static final String OTHER_LOCATOR = "other";
+    private static final Pattern URL_ORIGIN = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*://[^/?#]*");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private static final Map<Key, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    /** Distinct locators seen per page and action */
+    private static final Map<String, AtomicInteger> LOCATOR_COUNTS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ActionMetrics::writeReports, "action-metrics-report"));
+    }
+
+    /**
+     * Identifies one histogram
+     * @param page Page object (or core class) that performed the action
+     * @param action Action name, e.g. click, type, read, wait
+     * @param locator Locator or other target of the action
+     */
+    public record Key(String page, String action, String locator) {
+    }
+
+    private ActionMetrics() {
+    }
+
+    /**
+     * Records the duration of an action that started at startNanos
+     * @param page Page object (or core class) that performed the action
+     * @param action Action name
+     * @param locator Locator or other target of the action, may be null
+     * @param startNanos System.nanoTime() when the action started
+     */
+    public static void record(String page, String action, String locator, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        Key key = new Key(page, action, normalizeLocator(locator));
+        Histogram histogram = HISTOGRAMS.get(key);
+        if (histogram == null) {
+            histogram = HISTOGRAMS.computeIfAbsent(admit(key), k -> new Histogram());
+        }
+        histogram.record(elapsed);
+    }
+
+    /**
+     * Reduces a locator to a low-cardinality label: URLs lose their origin, query and fragment, numeric
+     * path segments become {n}, and anything longer than {@value #MAX_LOCATOR_LENGTH} characters is truncated
+     * @param locator Locator or other target of an action, may be null
+     * @return Label value
+     */
+    static String normalizeLocator(String locator) {
+        if (locator == null) {
+            return "";
+        }
+        String label = locator;
+        if (URL_ORIGIN.matcher(label).find()) {
+            label = URL_ORIGIN.matcher(label).replaceFirst("");
+            int end = label.length();
+            int query = label.indexOf('?');
+            int fragment = label.indexOf('#');
+            if (query >= 0) {
+                end = query;
+            }
+            if (fragment >= 0 && fragment < end) {
+                end = fragment;
+            }
+            label = NUMERIC_SEGMENT.matcher(label.substring(0, end)).replaceAll("/{n}");
+            if (label.isEmpty()) {
+                label = "/";
+            }
+        }
+        if (label.length() > MAX_LOCATOR_LENGTH) {
+            label = label.substring(0, MAX_LOCATOR_LENGTH - 3) + "...";
+        }
+        return label;
+    }
+
+    /**
+     * Admits a new histogram key, or folds it into the other locator of its page action once that action
+     * has {@value #MAX_LOCATORS_PER_ACTION} distinct locators
+     */
+    private static Key admit(Key key) {
+        int seen = LOCATOR_COUNTS.computeIfAbsent(key.page() + "\u0000" + key.action(), k -> new AtomicInteger())
+                .incrementAndGet();
+        return seen <= MAX_LOCATORS_PER_ACTION ? key : new Key(key.page(), key.action(), OTHER_LOCATOR);
+    }
+
+    /**
+     * Gets a read-only view of all histograms recorded in this JVM
+     * @return Histograms by key
+     */
+    public static Map<Key, Histogram> snapshot() {
+        return Map.copyOf(HISTOGRAMS);
+    }
+
+    /**
+     * Clears all histograms, e.g. before a measured run
+     */
+    public static void reset() {
+        HISTOGRAMS.clear();
+        LOCATOR_COUNTS.clear();
+    }
+
+    /**
+     * Renders all histograms in the Prometheus text exposition format
+     * @return Prometheus exposition text
+     */
+    public static String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP ").append(METRIC_NAME).append(" Duration of page object actions and driver lifecycle steps\n");
+        text.append("# TYPE ").append(METRIC_NAME).append(" histogram\n");
+        for (Map.Entry<Key, Histogram> entry : sortedEntries()) {
+            Key key = entry.getKey();
+            Histogram histogram = entry.getValue();
+            String labels = String.format(Locale.ROOT, "page=\"%s\",action=\"%s\",locator=\"%s\"",
+                    escape(key.page()), escape(key.action()), escape(key.locator()));
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS_MS.length; i++) {
+                cumulative += histogram.buckets[i].sum();
+                text.append(String.format(Locale.ROOT, "%s_bucket{%s,le=\"%s\"} %d%n", METRIC_NAME, labels, BUCKETS_MS[i] / 1000.0, cumulative));
+            }
+            text.append(String.format(Locale.ROOT, "%s_bucket{%s,le=\"+Inf\"} %d%n", METRIC_NAME, labels, histogram.getCount()));
+            text.append(String.format(Locale.ROOT, "%s_sum{%s} %.6f%n", METRIC_NAME, labels, histogram.getSumMillis() / 1000.0));
+            text.append(String.format(Locale.ROOT, "%s_count{%s} %d%n", METRIC_NAME, labels, histogram.getCount()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Renders all histograms as JSON with count, sum, mean and estimated percentiles
+     * @return JSON document
+     */
+    public static JSONObject toJson() {
+        JSONArray metrics = new JSONArray();
+        for (Map.Entry<Key, Histogram> entry : sortedEntries()) {
+            Key key = entry.getKey();
+            Histogram histogram = entry.getValue();
+            metrics.put(new JSONObject()
+                    .put("page", key.page())
+                    .put("action", key.action())
+                    .put("locator", key.locator())
+                    .put("count", histogram.getCount())
+                    .put("sum_ms", histogram.getSumMillis())
+                    .put("mean_ms", histogram.getMeanMillis())
+                    .put("p50_ms", histogram.percentileMillis(0.50))
+                    .put("p90_ms", histogram.percentileMillis(0.90))
+                    .put("p99_ms", histogram.percentileMillis(0.99)));
+        }
+        return new JSONObject()
+                .put("pid", ProcessHandle.current().pid())
+                .put("metrics", metrics);
+    }
+
+    private static List<Map.Entry<Key, Histogram>> sortedEntries() {
+        return HISTOGRAMS.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<Key, Histogram> entry) -> entry.getValue().getSumMillis()).reversed())
+                .toList();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void writeReports() {
+        if (HISTOGRAMS.isEmpty()) {
+            return;
+        }
+        try {
+            Path directory = Paths.get(REPORTS_DIR, "metrics");
+            Files.createDirectories(directory);
+            long pid = ProcessHandle.current().pid();
+            Files.writeString(directory.resolve("actions-" + pid + ".prom"), toPrometheus(), StandardCharsets.UTF_8);
+            Files.writeString(directory.resolve("actions-" + pid + ".json"), toJson().toString(2), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Helper.shutdownMessage("Failed to write action metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fixed-bucket latency histogram
+     */
+    public static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[BUCKETS_MS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+
+        private Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            double millis = nanos / 1_000_000.0;
+            int bucket = 0;
+            while (bucket < BUCKETS_MS.length && millis > BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            count.increment();
+            sumNanos.add(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getSumMillis() {
+            return sumNanos.sum() / 1_000_000.0;
+        }
+
+        public double getMeanMillis() {
+            long n = getCount();
+            return n == 0 ? 0 : getSumMillis() / n;
+        }
+
+        /**
+         * Estimates a percentile by linear interpolation inside the bucket that contains it
+         * @param quantile Quantile between 0 and 1
+         * @return Estimated latency in milliseconds
+         */
+        public double percentileMillis(double quantile) {
+            long total = getCount();
+            if (total == 0) {
+                return 0;
+            }
+            double rank = quantile * total;
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                long inBucket = buckets[i].sum();
+                if (inBucket > 0 && cumulative + inBucket >= rank) {
+                    double lower = i == 0 ? 0 : BUCKETS_MS[i - 1];
+                    double upper = i < BUCKETS_MS.length ? BUCKETS_MS[i] : lower * 2;
+                    return lower + (upper - lower) * ((rank - cumulative) / inBucket);
+                }
+                cumulative += inBucket;
+            }
+            return BUCKETS_MS[BUCKETS_MS.length - 1];
+        }
+    }
+}
@@ -3,15 +3,21 @@ package core;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import java.time.Duration;
 import utils.Helper;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,25 +27,254 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class BasePage extends Helper {
     private String crrWindow;
+    private ElementCache elementCache;
     protected WebDriver driver;
+    protected DomWait domWait;
+    private String pageUrl;
+    private boolean pageUrlResolved;
+
     public BasePage(){
         driver = DriverManager.getDriver();
+        domWait = new DomWait(driver);
+    }
+
+    /**
+     * Declares the URL of the page without loading it. The page is opened on the first interaction through
+     * this page object, unless something opens another URL first, in which case it is never loaded.
+     * @param pageUrl URL of the page
+     */
+    protected BasePage(String pageUrl) {
+        this();
+        this.pageUrl = pageUrl;
+    }
+
+    /**
+     * Opens the declared URL of this page object if it has not been opened or superseded yet.
+     * Called before every interaction; a no-op for page objects without a declared URL.
+     */
+    protected void ensureLoaded() {
+        if (this.pageUrl == null || this.pageUrlResolved) {
+            return;
+        }
+        this.pageUrlResolved = true;
+        openSite(this.pageUrl);
     }
 
     public void openSite() {
-        logger.info("Navigating to URL: {}", TestSettings.BASE_URL);
-        this.driver.get(TestSettings.BASE_URL);
-        logger.info("Navigation to URL: {} completed", TestSettings.BASE_URL);
+        openSite(TestSettings.BASE_URL);
     }
 
+    /**
+     * Navigates to the URL, unless the session is already on it with a page nothing has interacted with
+     * since it was loaded. Waits for the ready state required by {@link #getPageLoadStrategy()} when the
+     * session itself uses a less strict strategy. Site URLs are served by the fixture server when fixtures are enabled.
+     * @param url Target URL
+     */
     public void openSite(String url) {
-        logger.info("Navigating to URL: {}", url);
-        this.driver.get(url);
-        logger.info("Navigation to URL: {} completed", url);
+        if (this.pageUrl != null && !this.pageUrlResolved) {
+            this.pageUrlResolved = true;
+            if (!NavigationState.sameUrl(this.pageUrl, url)) {
+                logger.info("Declared page {} was never used, opening {} instead", this.pageUrl, url);
+                recordAvoidedNavigation(this.pageUrl);
+            }
+        }
+        String target = TestSettings.resolveUrl(url);
+        NavigationState state = NavigationState.of(this.driver);
+        if (state.isCleanAt(target) && NavigationState.sameUrl(this.driver.getCurrentUrl(), target)) {
+            logger.info("Already on URL: {} with a clean page, skipping navigation", target);
+            recordAvoidedNavigation(target);
+            return;
+        }
+
+        logger.info("Navigating to URL: {}", target);
+        invalidateElementCache();
+        timedAction("navigate", target, () -> {
+            this.driver.get(target);
+            PageLoadStrategy strategy = getPageLoadStrategy();
+            if (strictness(strategy) > strictness(TestSettings.PAGE_LOAD_STRATEGY)) {
+                this.domWait.untilDocumentReady(strategy, Duration.ofSeconds(TestSettings.PAGE_LOAD_TIMEOUT));
+            }
+        });
+        state.navigated(target);
+        logger.info("Navigation to URL: {} completed", target);
+        checkPagePerformance(url);
+    }
+
+    /**
+     * Records the timings of the page just loaded and fails if they exceed this page object's {@link PerformanceBudget}
+     */
+    private void checkPagePerformance(String url) {
+        if (!TestSettings.PAGE_PERFORMANCE) {
+            return;
+        }
+        List<String> violations = timed("performance_capture", url, () -> PagePerformance.capture(this.driver, getClass(), url));
+        if (!violations.isEmpty()) {
+            logger.warn("{} exceeded its performance budget: {}", url, violations);
+            if (TestSettings.PERFORMANCE_BUDGETS) {
+                fail(String.format("%s exceeded the performance budget of %s: %s", url, getClass().getSimpleName(),
+                        String.join(", ", violations)));
+            }
+        }
+    }
+
+    /**
+     * Starts the page authenticated: injects the cookies and storage cached for the key and opens the page the
+     * login ended on, or runs the login and caches the resulting state. A cached state the application rejects
+     * is dropped and the login runs for real. Concurrent logins with the same key wait for the first one.
+     * @param cacheKey Key from SessionStateCache.key(environment, credentials...)
+     * @param login Logs in through the UI and returns once the post-login page is reached
+     */
+    protected void loginWithCachedSession(String cacheKey, Runnable login) {
+        if (!TestSettings.SESSION_STATE_CACHE) {
+            login.run();
+            return;
+        }
+        if (restoreSessionState(cacheKey)) {
+            return;
+        }
+        ReentrantLock lock = SessionStateCache.lockFor(cacheKey);
+        lock.lock();
+        try {
+            // Another test may have logged in while this one waited
+            if (restoreSessionState(cacheKey)) {
+                return;
+            }
+            login.run();
+            timed("session_capture", null, () -> SessionStateCache.capture(cacheKey, this.driver));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean restoreSessionState(String cacheKey) {
+        Optional<SessionStateCache.SessionState> state = SessionStateCache.get(cacheKey);
+        if (state.isEmpty()) {
+            return false;
+        }
+        markPageDirty();
+        invalidateElementCache();
+        boolean restored = timed("session_restore", state.get().origin(),
+                () -> SessionStateCache.restore(this.driver, state.get()));
+        if (!restored) {
+            logger.warn("Cached session state was rejected (redirected to {}), logging in again", this.driver.getCurrentUrl());
+            SessionStateCache.invalidate(cacheKey);
+            return false;
+        }
+        NavigationState.of(this.driver).navigated(state.get().landingUrl());
+        logger.info("Restored cached session state, now on {}", state.get().landingUrl());
+        return true;
+    }
+
+    /**
+     * Counts a page load that was not needed as navigate_avoided in {@link ActionMetrics}
+     */
+    private void recordAvoidedNavigation(String url) {
+        ActionMetrics.record(getClass().getSimpleName(), "navigate_avoided", url, System.nanoTime());
+    }
+
+    /**
+     * Page load strategy this page object needs. Override to wait for more than the session strategy
+     * (e.g. NORMAL for a page whose assertions need images loaded); less strict values have no effect
+     * because the driver already waited for the session strategy.
+     * @return PageLoadStrategy for this page
+     */
+    protected PageLoadStrategy getPageLoadStrategy() {
+        return TestSettings.PAGE_LOAD_STRATEGY;
+    }
+
+    private static int strictness(PageLoadStrategy strategy) {
+        return switch (strategy) {
+            case NONE -> 0;
+            case EAGER -> 1;
+            case NORMAL -> 2;
+        };
+    }
+
+    /**
+     * Records that the current page has been interacted with, so it is reloaded on the next openSite
+     */
+    private void markPageDirty() {
+        // Load the declared page before its clean state is given up
+        ensureLoaded();
+        NavigationState.of(this.driver).markDirty();
+    }
+
+    /**
+     * Enables the element cache for this page object. Resolved elements are reused by locator until
+     * the page navigates or switches window; a stale reference is re-resolved once transparently.
+     * Cached elements are only checked for visibility when they are first resolved.
+     */
+    protected void enableElementCache() {
+        if (this.elementCache == null) {
+            this.elementCache = new ElementCache(getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Gets the element cache of this page object
+     * @return ElementCache with hit/miss counters, or null when caching is not enabled
+     */
+    public ElementCache getElementCache() {
+        return this.elementCache;
+    }
+
+    private void invalidateElementCache() {
+        if (this.elementCache != null) {
+            logger.debug("Invalidating element cache of {} ({})", getClass().getSimpleName(), this.elementCache);
+            this.elementCache.invalidate();
+        }
+    }
+
+    /**
+     * Gets the download directory of the current browser session
+     * @return Path where this session's downloads are saved
+     */
+    protected Path getDownloadDirectory() {
+        return DriverManager.getDownloadDirectory();
+    }
+
+    @Override
+    public void waitForFileDownload(String fileName, int timeoutInSeconds) {
+        waitForFileDownload(getDownloadDirectory(), fileName, timeoutInSeconds);
+    }
+
+    private WebElement resolveElement(By selector) {
+        WebElement element = this.domWait.untilVisible(selector, Duration.ofSeconds(TestSettings.WAIT_ELEMENT));
+        if (TestSettings.LOCATOR_PROFILING) {
+            LocatorProfiler.sample(this.driver, getClass().getSimpleName(), selector);
+        }
+        return element;
+    }
+
+    /**
+     * Runs an action against the element located by selector. When the element came from the cache
+     * and has gone stale, it is evicted, re-resolved and the action is retried once.
+     */
+    private <T> T withElement(By selector, Function<WebElement, T> action) {
+        if (this.elementCache != null) {
+            return this.elementCache.apply(selector, this::resolveElement, action);
+        }
+        return action.apply(resolveElement(selector));
     }
 
-    private WebElement findElement(By selector) {
-        return getWait(TestSettings.WAIT_ELEMENT).until(ExpectedConditions.visibilityOfElementLocated(selector));
+    /**
+     * Runs an action and records its duration in {@link ActionMetrics}, tagged by page class, action and target
+     */
+    private <T> T timed(String action, Object target, Supplier<T> body) {
+        ensureLoaded();
+        long start = System.nanoTime();
+        try {
+            return body.get();
+        } finally {
+            ActionMetrics.record(getClass().getSimpleName(), action, target == null ? null : target.toString(), start);
+        }
+    }
+
+    private void timedAction(String action, Object target, Runnable body) {
+        timed(action, target, () -> {
+            body.run();
+            return null;
+        });
     }
 
     public WebDriverWait getWait(long waitTime) {
@@ -47,51 +282,101 @@ public class BasePage extends Helper {
     }
 
     protected void waitForElementInvisible(By selector) {
-        getWait(TestSettings.WAIT_ELEMENT).until(ExpectedConditions.invisibilityOfElementLocated(selector));
+        timedAction("wait", selector, () -> this.domWait.untilGone(selector, Duration.ofSeconds(TestSettings.WAIT_ELEMENT)));
     }
 
     private WebElement waitForElementClickable(By selector) {
-        return getWait(TestSettings.WAIT_ELEMENT).until(ExpectedConditions.elementToBeClickable(selector));
+        return this.domWait.untilClickable(selector, Duration.ofSeconds(TestSettings.WAIT_ELEMENT));
+    }
+
+    protected WebElement waitForElementText(By selector, String regex) {
+        logger.info("Waiting for text of element {} to match {}", selector, regex);
+        return timed("wait", selector, () -> this.domWait.untilTextMatches(selector, regex, Duration.ofSeconds(TestSettings.WAIT_ELEMENT)));
     }
 
     protected void enterText(By selector, String text) {
         logger.info("Entering text {}", text);
-        findElement(selector).sendKeys(text);
+        markPageDirty();
+        timed("type", selector, () -> withElement(selector, element -> {
+            element.sendKeys(text);
+            return null;
+        }));
     }
 
     protected void enterTextWithoutWait(By selector, String text) {
         logger.info("Entering text {}", text);
-        this.driver.findElement(selector).sendKeys(text);
+        markPageDirty();
+        timedAction("type", selector, () -> this.driver.findElement(selector).sendKeys(text));
     }
 
     protected String getElementAttribute(By selector, String attributeName) {
         logger.info("Getting attribute {} from element {}", attributeName, selector);
-        return findElement(selector).getDomAttribute(attributeName);
+        return timed("read", selector, () -> withElement(selector, element -> element.getDomAttribute(attributeName)));
     }
 
    protected String getElementValue(By selector) {
        logger.info("Getting value from element {}", selector);
-       WebElement element = findElement(selector);
-       return element.getText().isEmpty() ? element.getDomProperty("value") : element.getText();
+       return timed("read", selector, () -> withElement(selector, element -> {
+           String text = element.getText();
+           return text.isEmpty() ? element.getDomProperty("value") : text;
+       }));
    }
 
     protected void clickButton(By selector) {
         logger.info("Clicking button {}", selector);
-        waitForElementClickable(selector).click();
+        markPageDirty();
+        // Not served from the element cache: the clickability check already resolves the element in the same round trip
+        timedAction("click", selector, () -> waitForElementClickable(selector).click());
     }
 
-    protected void executeJavaScript(String script) {
-        logger.info("Executing JavaScript: {}", script);
+    /**
+     * Executes a script in the current page
+     * @param label Short name of the script, used in the log and as the metrics locator
+     * @param script JavaScript to execute
+     * @param args Script arguments, available as arguments[i]
+     * @return Value returned by the script
+     */
+    protected Object executeJavaScript(String label, String script, Object... args) {
+        logger.debug("Executing script {}", label);
+        markPageDirty();
         JavascriptExecutor js = (JavascriptExecutor) this.driver;
-        js.executeScript(script);
+        return timed("script", label, () -> js.executeScript(script, args));
     }
 
     protected String getElementText(By selector) {
-        String text = findElement(selector).getText();
+        String text = timed("read", selector, () -> withElement(selector, WebElement::getText));
         logger.info("Retrieved text '{}' from element {}", text, selector);
         return text;
     }
 
+    /**
+     * Reads text, value, visibility and attributes of several elements in a single script round trip.
+     * Elements are read as they currently are; nothing is waited for.
+     * @param selectors Element locators
+     * @param fields Properties to read
+     * @param attributes Attribute names to read
+     * @return ElementSnapshot with one entry per locator
+     */
+    protected ElementSnapshot readElements(List<By> selectors, Set<ElementSnapshot.Field> fields, String... attributes) {
+        logger.info("Reading {} of {} element(s) in one round trip", fields, selectors.size());
+        return timed("read", selectors, () -> ElementSnapshot.read(this.driver, selectors, fields, List.of(attributes)));
+    }
+
+    /**
+     * Waits until one element is visible, then reads several elements in a single script round trip,
+     * e.g. to verify a form once its result is shown
+     * @param waitFor Element that must be visible before the read
+     * @param selectors Element locators
+     * @param fields Properties to read
+     * @param attributes Attribute names to read
+     * @return ElementSnapshot with one entry per locator
+     */
+    protected ElementSnapshot readElementsWhenVisible(By waitFor, List<By> selectors, Set<ElementSnapshot.Field> fields,
+                                                      String... attributes) {
+        timed("wait", waitFor, () -> this.domWait.untilVisible(waitFor, Duration.ofSeconds(TestSettings.WAIT_ELEMENT)));
+        return readElements(selectors, fields, attributes);
+    }
+
     protected void verifyTrue(boolean condition, String message) {
         logger.info("Verifying condition is true");
         assertTrue(condition, message);
@@ -110,7 +395,7 @@ public class BasePage extends Helper {
     protected void verifyElementVisible(By selector, String errorMessage) {
         logger.info("Verifying visibility of element {}", selector);
         try {
-            getWait(TestSettings.WAIT_ELEMENT).until(ExpectedConditions.visibilityOfElementLocated(selector));
+            timed("wait", selector, () -> this.domWait.untilVisible(selector, Duration.ofSeconds(TestSettings.WAIT_ELEMENT)));
             logger.info("Element {} is visible", selector);
         } catch (Exception e) {
             logger.error("Element {} is not visible: {}", selector, errorMessage);
@@ -120,72 +405,86 @@ public class BasePage extends Helper {
 
     protected void hoverElement(By selector) {
         logger.info("Hovering over element {}", selector);
-        WebElement element = findElement(selector);
-        // Init action object
-        Actions actions = new Actions(this.driver);
-
-        // Perform hover action
-        actions.moveToElement(element).perform();
+        markPageDirty();
+        timed("hover", selector, () -> withElement(selector, element -> {
+            // Init action object
+            Actions actions = new Actions(this.driver);
+
+            // Perform hover action
+            actions.moveToElement(element).perform();
+            return null;
+        }));
     }
 
     protected void dragAndDrop(By sourceEleBy, By targetEleBy) {
         logger.info("Dragging element from {} to {}", sourceEleBy, targetEleBy);
-        WebElement sourceElement = findElement(sourceEleBy);
-        WebElement targetElement = findElement(targetEleBy);
-
-        // Init action object
-        Actions actions = new Actions(this.driver);
-
-        // Perform drag and drop action
-        actions.dragAndDrop(sourceElement, targetElement).perform();
+        markPageDirty();
+        timed("drag", sourceEleBy, () -> withElement(targetEleBy, targetElement -> withElement(sourceEleBy, sourceElement -> {
+            // Init action object
+            Actions actions = new Actions(this.driver);
+
+            // Perform drag and drop action
+            actions.dragAndDrop(sourceElement, targetElement).perform();
+            return null;
+        })));
     }
 
     protected Alert switchToAlert() {
         logger.info("Switching to alert");
-        return this.driver.switchTo().alert();
+        markPageDirty();
+        return timed("alert", "switch", () -> this.driver.switchTo().alert());
     }
 
     protected void acceptAlertAction(Alert alert) {
         logger.info("Accepting alert");
-        alert.accept();
+        timedAction("alert", "accept", alert::accept);
     }
     protected void dismissAlertAction(Alert alert) {
         logger.info("Dismissing alert");
-        alert.dismiss();
+        timedAction("alert", "dismiss", alert::dismiss);
     }
 
     protected WebDriver swithToNewWindow(){
         logger.info("Switching to new window");
-        this.crrWindow = this.driver.getWindowHandle();
-        logger.info("Current window: {}", this.crrWindow);
-        for (String windowHandle : this.driver.getWindowHandles()) {
-            if (!windowHandle.equals(this.crrWindow)) {
-                this.driver.switchTo().window(windowHandle);
-                logger.info("Switched to new window: {}", windowHandle);
-                return this.driver;
+        markPageDirty();
+        invalidateElementCache();
+        return timed("window_switch", "new", () -> {
+            this.crrWindow = this.driver.getWindowHandle();
+            logger.info("Current window: {}", this.crrWindow);
+            for (String windowHandle : this.driver.getWindowHandles()) {
+                if (!windowHandle.equals(this.crrWindow)) {
+                    this.driver.switchTo().window(windowHandle);
+                    logger.info("Switched to new window: {}", windowHandle);
+                    return this.driver;
+                }
             }
-        }
-        logger.warn("No new window found to switch to");
-        return this.driver;
+            logger.warn("No new window found to switch to");
+            return this.driver;
+        });
     }
 
     public void verifyTitle(String expectedTitle) {
         logger.info("Verifying page title is: {}", expectedTitle);
+        ensureLoaded();
         String actualTitle = this.driver.getTitle();
         verifyEquals(expectedTitle, actualTitle, String.format("Expected title '%s' but found '%s'", expectedTitle, actualTitle));
     }
 
     public void switchBackToOriginalWindow() {
         logger.info("Switching back to original window: {}", this.crrWindow);
-        Set<String> arrString = this.driver.getWindowHandles();
-        for (String windowHandle : arrString) {
-            if (!windowHandle.equals(this.crrWindow)) {
-                this.driver.switchTo().window(windowHandle);
-                logger.info("Switched to new window: {}", windowHandle);
-                this.driver.close();
+        markPageDirty();
+        invalidateElementCache();
+        timedAction("window_switch", "original", () -> {
+            Set<String> arrString = this.driver.getWindowHandles();
+            for (String windowHandle : arrString) {
+                if (!windowHandle.equals(this.crrWindow)) {
+                    this.driver.switchTo().window(windowHandle);
+                    logger.info("Switched to new window: {}", windowHandle);
+                    this.driver.close();
+                }
             }
-        }
-        this.driver.switchTo().window(this.crrWindow);
+            this.driver.switchTo().window(this.crrWindow);
+        });
     }
 }
 
@@ -2,6 +2,7 @@ package core;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.ExtendWith;
 import utils.Helper;
 
 import java.net.MalformedURLException;
@@ -9,7 +10,12 @@ import java.net.MalformedURLException;
 /**
  * BaseTest provides common setup and teardown for all test classes.
  * Uses @BeforeEach/@AfterEach for test-level driver lifecycle (better test isolation).
+ * Tests declared with @CrossBrowser instead of @Test run this lifecycle once per browser, see {@link CrossBrowserExtension}.
+ * Failing tests leave a screenshot, page source and browser log behind, see {@link FailureArtifacts}.
+ * Tests declared with @RetryingTest are retried on a fresh pooled session when they fail, see {@link RetryExtension};
+ * tests that often pass only on a retry are quarantined, see {@link FlakyQuarantine}.
  */
+@ExtendWith({FlakyQuarantine.class, FailureArtifacts.class})
 public class BaseTest extends Helper {
     protected DriverManager driverManager;
 
@@ -26,11 +32,12 @@ public class BaseTest extends Helper {
         logger.info("Starting test: {}", testInfo.getDisplayName());
         logger.info("Test class: {}", testInfo.getTestClass().orElse(null));
         logger.info("Environment: {}", TestSettings.TEST_ENV);
-        logger.info("Browser: {}", TestSettings.BROWSER_TYPE);
+        String browser = CrossBrowserExtension.currentBrowser();
+        logger.info("Browser: {}", browser != null ? browser : TestSettings.BROWSER_TYPE);
         logger.info("========================================");
 
         try {
-            driverManager = new DriverManager();
+            driverManager = browser != null ? new DriverManager(browser, TestSettings.HUB_TYPE) : new DriverManager();
             logger.info("WebDriver initialized successfully");
         } catch (Exception e) {
             logger.error("Failed to initialize WebDriver", e);
@@ -40,7 +47,7 @@ public class BaseTest extends Helper {
 
     /**
      * Teardown executed after each test method.
-     * Quits WebDriver and logs test completion.
+     * Returns WebDriver to the session pool and logs test completion.
      *
      * @param testInfo JUnit 5 test metadata
      */
@@ -48,8 +55,8 @@ public class BaseTest extends Helper {
     public void teardown(TestInfo testInfo) {
         try {
             if (driverManager != null) {
-                driverManager.quit();
-                logger.info("WebDriver quit successfully");
+                driverManager.release();
+                logger.info("WebDriver released successfully");
             }
         } catch (Exception e) {
             logger.error("Error during test teardown", e);
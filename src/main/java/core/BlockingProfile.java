@@ -0,0 +1,67 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Network blocking profiles applied to Chromium sessions by {@link NetworkBlocker}.
+ * URL patterns use the CDP wildcard syntax ('*' matches any characters); resource types use the
+ * CDP Network.ResourceType names. Profiles build on each other from NONE to STRICT.
+ */
+public enum BlockingProfile {
+    /** Load everything */
+    NONE(List.of(), List.of()),
+
+    /** Drop ads, trackers and analytics */
+    ADS(List.of(
+            "*googlesyndication.com*", "*doubleclick.net*", "*googleadservices.com*", "*adservice.google.*",
+            "*google-analytics.com*", "*googletagmanager.com*", "*googletagservices.com*", "*pagead2.*",
+            "*amazon-adsystem.com*", "*adnxs.com*", "*criteo.*", "*taboola.com*", "*outbrain.com*",
+            "*connect.facebook.net*", "*hotjar.com*", "*scorecardresearch.com*", "*quantserve.com*",
+            "*clarity.ms*", "*fundingchoicesmessages.google.com*"),
+            List.of()),
+
+    /** ADS plus web fonts and audio/video */
+    LEAN(concat(ADS.urlPatterns, List.of("*fonts.googleapis.com*", "*fonts.gstatic.com*")),
+            List.of("Font", "Media")),
+
+    /** LEAN plus images; breaks assertions on image size or visibility */
+    STRICT(LEAN.urlPatterns, concat(LEAN.resourceTypes, List.of("Image")));
+
+    private final List<String> urlPatterns;
+    private final List<String> resourceTypes;
+
+    BlockingProfile(List<String> urlPatterns, List<String> resourceTypes) {
+        this.urlPatterns = urlPatterns;
+        this.resourceTypes = resourceTypes;
+    }
+
+    public List<String> getUrlPatterns() {
+        return urlPatterns;
+    }
+
+    public List<String> getResourceTypes() {
+        return resourceTypes;
+    }
+
+    /**
+     * Parses a profile name case-insensitively
+     * @param name Profile name (none, ads, lean, strict)
+     * @return Matching BlockingProfile
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static BlockingProfile fromName(String name) {
+        for (BlockingProfile profile : values()) {
+            if (profile.name().equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported blocking profile: " + name + ". Supported profiles: none, ads, lean, strict");
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> result = new ArrayList<>(first);
+        result.addAll(second);
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,69 @@
+package core;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+import utils.Helper;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * BrowserSlotStrategy sizes the JUnit thread pool by how many browsers the machine or Grid can sustain
+ * ({@link BrowserSlots#initialCapacity()}) instead of by CPU cores.
+ * Configured in junit-platform.properties:
+ * junit.jupiter.execution.parallel.config.strategy = custom
+ * junit.jupiter.execution.parallel.config.custom.class = core.BrowserSlotStrategy
+ */
+public class BrowserSlotStrategy extends Helper implements ParallelExecutionConfigurationStrategy {
+    private static final int KEEP_ALIVE_SECONDS = 30;
+    private static final int MAX_POOL_SIZE_OFFSET = 256;
+
+    public BrowserSlotStrategy() {
+        super();
+    }
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int parallelism = BrowserSlots.initialCapacity();
+        logger.info("JUnit parallelism set to {} from available browser slots", parallelism);
+        return new SlotConfiguration(parallelism);
+    }
+
+    /**
+     * Thread pool settings for a given parallelism, mirroring JUnit's built-in strategies
+     */
+    private record SlotConfiguration(int parallelism) implements ParallelExecutionConfiguration {
+
+        @Override
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMinimumRunnable() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            return MAX_POOL_SIZE_OFFSET + parallelism;
+        }
+
+        @Override
+        public int getCorePoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getKeepAliveSeconds() {
+            return KEEP_ALIVE_SECONDS;
+        }
+
+        @Override
+        public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+            // Tests waiting for a browser slot block their worker; never fail because the pool is saturated
+            return pool -> true;
+        }
+    }
+}
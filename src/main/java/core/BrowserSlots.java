@@ -0,0 +1,254 @@
+package core;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import utils.Helper;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * BrowserSlots decides how many browsers this fork may run at once and gates session creation on it.
+ * Locally the capacity is the free memory (minus a reserve) divided by the per-browser memory estimate,
+ * capped by the CPU count; on a Grid it is the number of free slots for the browser from /status.
+ * Either is split evenly between the surefire forks. The initial capacity sizes the JUnit thread pool
+ * through {@link BrowserSlotStrategy}; while the run progresses the capacity is re-measured periodically
+ * and tests wait in {@link #acquire()} when the machine or Grid has no room for another browser.
+ */
+public final class BrowserSlots extends Helper {
+    private static final Duration GRID_TIMEOUT = Duration.ofSeconds(5);
+    private static final long MB = 1024 * 1024;
+
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final Condition SLOT_FREED = LOCK.newCondition();
+    private static int inUse;
+    private static int limit;
+    private static int ceiling;
+    private static ScheduledExecutorService monitor;
+
+    private BrowserSlots() {
+        super();
+    }
+
+    /**
+     * Gets the number of browsers this fork can run when the run starts. Measured once per JVM;
+     * this is also the upper bound for the dynamic capacity.
+     * @return Number of concurrent browsers, at least 1
+     */
+    public static int initialCapacity() {
+        LOCK.lock();
+        try {
+            if (ceiling == 0) {
+                ceiling = measure(0, true);
+                limit = ceiling;
+            }
+            return ceiling;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Waits until there is room for one more browser and claims it
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    public static void acquire() {
+        initialCapacity();
+        startMonitor();
+        LOCK.lock();
+        try {
+            long waitStart = System.nanoTime();
+            while (inUse >= limit) {
+                logger.debug("Waiting for a browser slot ({} in use, limit {})", inUse, limit);
+                SLOT_FREED.await(TestSettings.SLOT_CHECK_INTERVAL, TimeUnit.SECONDS);
+            }
+            inUse++;
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStart);
+            if (waitedMs > 0) {
+                logger.info("Acquired browser slot after waiting {} ms ({} in use, limit {})", waitedMs, inUse, limit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser slot", e);
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Returns a slot claimed with {@link #acquire()}
+     */
+    public static void release() {
+        LOCK.lock();
+        try {
+            if (inUse > 0) {
+                inUse--;
+            }
+            SLOT_FREED.signal();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Gets the current number of browsers that may run at once
+     * @return Current limit
+     */
+    public static int currentLimit() {
+        LOCK.lock();
+        try {
+            return limit;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static void startMonitor() {
+        LOCK.lock();
+        try {
+            if (monitor != null) {
+                return;
+            }
+            monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "browser-slots-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            monitor.scheduleWithFixedDelay(BrowserSlots::adjust, TestSettings.SLOT_CHECK_INTERVAL,
+                    TestSettings.SLOT_CHECK_INTERVAL, TimeUnit.SECONDS);
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static void adjust() {
+        int running;
+        LOCK.lock();
+        try {
+            running = inUse;
+        } finally {
+            LOCK.unlock();
+        }
+        int measured = Math.min(measure(running, false), ceiling);
+
+        LOCK.lock();
+        try {
+            if (measured != limit) {
+                logger.info("Browser slot limit changed from {} to {} ({} in use)", limit, measured, inUse);
+                limit = measured;
+                SLOT_FREED.signalAll();
+            }
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Measures how many browsers this fork can run, counting the ones it already runs
+     * @param running Browsers this fork currently runs
+     * @param log Whether to log the inputs of the decision
+     * @return Number of concurrent browsers, at least 1
+     */
+    private static int measure(int running, boolean log) {
+        int forks = Math.max(1, TestSettings.FORK_COUNT);
+        if (Objects.equals(TestSettings.HUB_TYPE, "GRID")) {
+            int[] grid = gridSlots();
+            if (grid != null) {
+                int slots = Math.max(1, running + grid[1] / forks);
+                if (log) {
+                    logger.info("Browser slots: {} per fork (Grid {} has {} {} slots, {} free, {} fork(s))",
+                            slots, TestSettings.GRID_HUB_URL, grid[0], TestSettings.BROWSER_TYPE, grid[1], forks);
+                }
+                return slots;
+            }
+        }
+
+        long availableMb = availableMemoryMb();
+        long headroomMb = Math.max(0, availableMb - TestSettings.MEMORY_RESERVE_MB);
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int byMemory = (int) (headroomMb / TestSettings.BROWSER_MEMORY_MB / forks);
+        int byCpu = Math.max(1, cpus / forks);
+        int slots = Math.max(1, Math.min(running + byMemory, byCpu));
+        if (log) {
+            logger.info("Browser slots: {} per fork ({} MB available, {} MB reserved, {} MB per {} browser, {} CPUs, {} fork(s))",
+                    slots, availableMb, TestSettings.MEMORY_RESERVE_MB, TestSettings.BROWSER_MEMORY_MB,
+                    TestSettings.BROWSER_TYPE, cpus, forks);
+        }
+        return slots;
+    }
+
+    /**
+     * Reads the memory the OS can hand out without swapping. MemAvailable counts reclaimable page cache,
+     * which the free memory reported by the JVM does not.
+     */
+    private static long availableMemoryMb() {
+        try {
+            List<String> lines = Files.readAllLines(Path.of("/proc/meminfo"));
+            for (String line : lines) {
+                if (line.startsWith("MemAvailable:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (Exception ignored) {
+            // Not Linux, use the JVM's view below
+        }
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getFreeMemorySize() / MB;
+        }
+        return Runtime.getRuntime().maxMemory() / MB;
+    }
+
+    /**
+     * Counts the Grid slots that can run the configured browser
+     * @return Total and free slots, or null if the Grid status cannot be read
+     */
+    private static int[] gridSlots() {
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(GRID_TIMEOUT).build()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(TestSettings.GRID_HUB_URL + "/status"))
+                    .timeout(GRID_TIMEOUT).GET().build();
+            JSONObject status = new JSONObject(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            String browser = TestSettings.BROWSER_TYPE.toLowerCase();
+            int total = 0;
+            int free = 0;
+            JSONArray nodes = status.getJSONObject("value").optJSONArray("nodes", new JSONArray());
+            for (int i = 0; i < nodes.length(); i++) {
+                JSONObject node = nodes.getJSONObject(i);
+                if (!"UP".equals(node.optString("availability"))) {
+                    continue;
+                }
+                JSONArray slots = node.optJSONArray("slots", new JSONArray());
+                for (int j = 0; j < slots.length(); j++) {
+                    JSONObject slot = slots.getJSONObject(j);
+                    String slotBrowser = slot.optJSONObject("stereotype", new JSONObject()).optString("browserName").toLowerCase();
+                    // Edge registers as "MicrosoftEdge"
+                    if (slotBrowser.contains(browser)) {
+                        total++;
+                        if (slot.isNull("session")) {
+                            free++;
+                        }
+                    }
+                }
+            }
+            return new int[] {total, free};
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            logger.warn("Failed to read Grid status from {}: {}", TestSettings.GRID_HUB_URL, e.getMessage());
+            return null;
+        }
+    }
+}
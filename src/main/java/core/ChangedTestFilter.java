@@ -0,0 +1,196 @@
+package core;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import utils.Helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static utils.Constants.PROJECT_ROOT_DIR;
+
+/**
+ * ChangedTestFilter runs only the test classes affected by the changes since {@link TestSettings#CHANGED_SINCE}.
+ * The dependencies of a test class are read from its bytecode: every project class it references, followed
+ * transitively, so a test depends on the page objects it creates, their selector classes and whatever those
+ * reference in turn. Classes are matched to changed files through their SourceFile attribute, which also covers
+ * the package-private selector classes declared next to their page. Changes to core, utils, resources or the
+ * pom can affect every test, so they run the full suite, as does any failure to ask git for the diff.
+ * Registered through META-INF/services; a no-op when -DchangedSince is not set.
+ */
+public class ChangedTestFilter extends Helper implements PostDiscoveryFilter {
+    /** Changed paths under these prefixes can affect any test */
+    private static final List<String> FULL_SUITE_PATHS = List.of("pom.xml", "src/main/java/core/", "src/main/java/utils/",
+            "src/main/resources/", "src/test/resources/");
+    private static final List<String> SOURCE_ROOTS = List.of("src/main/java/", "src/test/java/");
+    private static final long GIT_TIMEOUT_SECONDS = 30;
+
+    private static final Map<String, Boolean> AFFECTED = new ConcurrentHashMap<>();
+    private static final Map<String, Optional<ClassFileInfo>> CLASS_FILES = new ConcurrentHashMap<>();
+    private static volatile Selection selection;
+
+    /**
+     * Changes the selection is based on
+     * @param fullSuite Whether every test has to run
+     * @param changedSources Changed source files relative to their source root, e.g. pages/guru/LoginPage.java
+     * @param reason Why the full suite runs, or a summary of the changes
+     */
+    private record Selection(boolean fullSuite, Set<String> changedSources, String reason) {
+    }
+
+    public ChangedTestFilter() {
+        super();
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (TestSettings.CHANGED_SINCE.isEmpty()) {
+            return FilterResult.included("Change-based selection disabled");
+        }
+        String className = ShardFilter.topLevelClassName(descriptor);
+        if (className == null) {
+            return FilterResult.included("Not part of a test class");
+        }
+        Selection changes = selection();
+        if (changes.fullSuite()) {
+            return FilterResult.included(changes.reason());
+        }
+        boolean affected = AFFECTED.computeIfAbsent(className, name -> {
+            boolean result = dependsOnAny(name, changes.changedSources());
+            logger.info("{} {} by changes since {}", name, result ? "is affected" : "is not affected", TestSettings.CHANGED_SINCE);
+            return result;
+        });
+        return FilterResult.includedIf(affected,
+                () -> className + " depends on a file changed since " + TestSettings.CHANGED_SINCE,
+                () -> className + " does not depend on any file changed since " + TestSettings.CHANGED_SINCE);
+    }
+
+    /**
+     * Walks the project classes reachable from a test class and checks whether any was compiled from a changed file
+     */
+    private static boolean dependsOnAny(String testClass, Set<String> changedSources) {
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(List.of(testClass));
+        while (!pending.isEmpty()) {
+            String className = pending.poll();
+            if (!visited.add(className)) {
+                continue;
+            }
+            Optional<ClassFileInfo> info = classFile(className);
+            if (info.isEmpty()) {
+                continue;
+            }
+            if (changedSources.contains(info.get().sourceFile())) {
+                logger.debug("{} reaches {} compiled from changed {}", testClass, className, info.get().sourceFile());
+                return true;
+            }
+            pending.addAll(info.get().referencedClasses());
+        }
+        return false;
+    }
+
+    /**
+     * Reads a project class file; JDK and library classes (loaded from jars or the runtime image) are not followed
+     */
+    private static Optional<ClassFileInfo> classFile(String className) {
+        if (className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("jdk.")) {
+            return Optional.empty();
+        }
+        return CLASS_FILES.computeIfAbsent(className, name -> {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader() != null
+                    ? Thread.currentThread().getContextClassLoader() : ChangedTestFilter.class.getClassLoader();
+            URL resource = loader.getResource(name.replace('.', '/') + ".class");
+            if (resource == null || !"file".equals(resource.getProtocol())) {
+                return Optional.empty();
+            }
+            try (InputStream in = resource.openStream()) {
+                return Optional.of(ClassFileInfo.read(in));
+            } catch (IOException e) {
+                logger.warn("Failed to read class file of {}: {}", name, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static Selection selection() {
+        Selection current = selection;
+        if (current == null) {
+            synchronized (ChangedTestFilter.class) {
+                current = selection;
+                if (current == null) {
+                    current = computeSelection(TestSettings.CHANGED_SINCE);
+                    logger.info("Change-based selection since {}: {}", TestSettings.CHANGED_SINCE, current.reason());
+                    selection = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Selection computeSelection(String since) {
+        List<String> changed = new ArrayList<>();
+        try {
+            List<String> mergeBase = git("merge-base", since, "HEAD");
+            String base = mergeBase.isEmpty() ? since : mergeBase.get(0);
+            changed.addAll(git("diff", "--name-only", "--relative", base));
+            changed.addAll(git("ls-files", "--others", "--exclude-standard"));
+        } catch (IOException e) {
+            return new Selection(true, Set.of(), "Running the full suite, git diff failed: " + e.getMessage());
+        }
+
+        Set<String> sources = new TreeSet<>();
+        for (String path : changed) {
+            String normalized = path.replace('\\', '/');
+            for (String prefix : FULL_SUITE_PATHS) {
+                if (normalized.startsWith(prefix)) {
+                    return new Selection(true, Set.of(), "Running the full suite, " + normalized + " affects every test");
+                }
+            }
+            for (String root : SOURCE_ROOTS) {
+                if (normalized.startsWith(root) && normalized.endsWith(".java")) {
+                    sources.add(normalized.substring(root.length()));
+                }
+            }
+        }
+        return new Selection(false, sources, changed.size() + " changed files, " + sources.size() + " changed sources " + sources);
+    }
+
+    private static List<String> git(String... arguments) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(arguments));
+        Process process = new ProcessBuilder(command)
+                .directory(new File(PROJECT_ROOT_DIR))
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (!process.waitFor(GIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException(String.join(" ", command) + " timed out");
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException(String.join(" ", command) + " exited with " + process.exitValue());
+            }
+            return output.lines().map(String::trim).filter(line -> !line.isEmpty()).toList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running " + String.join(" ", command), e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package core;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ClassFileInfo reads the two things test selection needs from a compiled class without loading it: the
+ * classes it refers to (from the constant pool, including types that only appear in field and method
+ * descriptors) and the source file it was compiled from. Selector classes live next to their page in the
+ * same .java file, so the SourceFile attribute is what ties a changed file to all the classes it produced.
+ *
+ * @param className Binary name with dots, e.g. pages.guru.LoginPage
+ * @param sourceFile Source path relative to the source root, e.g. pages/guru/LoginPage.java, or null if not recorded
+ * @param referencedClasses Binary names of the classes referenced from the constant pool
+ */
+record ClassFileInfo(String className, String sourceFile, Set<String> referencedClasses) {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([\\w/$]+)[;<]");
+
+    /**
+     * Parses a class file
+     * @param classFile Stream positioned at the start of the class file; not closed
+     * @return Parsed class information
+     * @throws IOException if the stream is not a valid class file
+     */
+    static ClassFileInfo read(InputStream classFile) throws IOException {
+        // Buffered fully so skipBytes always skips the requested length
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile.readAllBytes()));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        // Name index of every CONSTANT_Class entry, by pool slot
+        int[] classNames = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[i] = in.readUTF();
+                case 7 -> classNames[i] = in.readUnsignedShort();
+                case 8, 16, 19, 20 -> in.readUnsignedShort();
+                case 15 -> in.skipBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.readInt();
+                case 5, 6 -> {
+                    in.readLong();
+                    // Long and double constants take two slots
+                    i++;
+                }
+                default -> throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        Set<String> referenced = new HashSet<>();
+        for (int nameIndex : classNames) {
+            String name = nameIndex == 0 ? null : utf8[nameIndex];
+            if (name != null && !name.startsWith("[")) {
+                referenced.add(name.replace('/', '.'));
+            }
+        }
+        for (String value : utf8) {
+            if (value != null && (value.startsWith("(") || value.startsWith("L") || value.startsWith("["))) {
+                Matcher matcher = DESCRIPTOR_TYPE.matcher(value);
+                while (matcher.find()) {
+                    referenced.add(matcher.group(1).replace('/', '.'));
+                }
+            }
+        }
+
+        in.readUnsignedShort();
+        int thisClass = in.readUnsignedShort();
+        String className = thisClass < count && classNames[thisClass] != 0 ? utf8[classNames[thisClass]] : null;
+        in.readUnsignedShort();
+        in.skipBytes(2 * in.readUnsignedShort());
+        for (int members = 0; members < 2; members++) {
+            int memberCount = in.readUnsignedShort();
+            for (int m = 0; m < memberCount; m++) {
+                in.skipBytes(6);
+                skipAttributes(in);
+            }
+        }
+
+        String sourceFile = null;
+        int attributes = in.readUnsignedShort();
+        for (int a = 0; a < attributes; a++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if ("SourceFile".equals(name)) {
+                sourceFile = utf8[in.readUnsignedShort()];
+            } else {
+                in.skipBytes(length);
+            }
+        }
+
+        String binaryName = className == null ? null : className.replace('/', '.');
+        referenced.remove(binaryName);
+        String sourcePath = null;
+        if (sourceFile != null && className != null) {
+            int slash = className.lastIndexOf('/');
+            sourcePath = slash < 0 ? sourceFile : className.substring(0, slash + 1) + sourceFile;
+        }
+        return new ClassFileInfo(binaryName, sourcePath, referenced);
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        int attributes = in.readUnsignedShort();
+        for (int a = 0; a < attributes; a++) {
+            in.skipBytes(2);
+            in.skipBytes(in.readInt());
+        }
+    }
+}
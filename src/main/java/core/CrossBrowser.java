@@ -0,0 +1,30 @@
+package core;
+
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a {@link BaseTest} test against several browsers in the same JVM, see {@link CrossBrowserExtension}.
+ * Use it instead of @Test; every browser is a separate invocation of the test.
+ *
+ * Usage:
+ * - @CrossBrowser runs against TestSettings.FANOUT_BROWSERS, or chrome, firefox and edge if that is empty
+ * - @CrossBrowser({"chrome", "firefox"}) runs against the listed browsers
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@TestTemplate
+@ExtendWith(CrossBrowserExtension.class)
+public @interface CrossBrowser {
+
+    /**
+     * Browsers to run the test against
+     * @return Browser types (chrome, firefox, edge)
+     */
+    String[] value() default {};
+}
@@ -0,0 +1,87 @@
+package core;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.platform.commons.support.AnnotationSupport;
+import utils.Helper;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * CrossBrowserExtension fans a {@link CrossBrowser} test out to several browsers. It provides one invocation
+ * of the test template per browser, and JUnit runs each invocation like any other test: concurrently when
+ * parallel execution is enabled, with the BeforeEach/AfterEach methods, the callbacks and parameter resolvers
+ * of every other extension, and its own entry in the reports. Before the BeforeEach methods the browser of the
+ * invocation is bound to its thread, so BaseTest starts a session for that browser and the ThreadLocal lookup
+ * in {@link DriverManager#getDriver()} and every page object created by the test resolve to that session.
+ */
+public class CrossBrowserExtension extends Helper implements TestTemplateInvocationContextProvider {
+    private static final List<String> DEFAULT_BROWSERS = List.of("chrome", "firefox", "edge");
+    private static final ThreadLocal<String> CURRENT_BROWSER = new ThreadLocal<>();
+
+    public CrossBrowserExtension() {
+        super();
+    }
+
+    /**
+     * Gets the browser of the cross-browser invocation running on the current thread
+     * @return Browser type, or null outside a cross-browser invocation
+     */
+    public static String currentBrowser() {
+        return CURRENT_BROWSER.get();
+    }
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return context.getTestMethod().map(method -> AnnotationSupport.isAnnotated(method, CrossBrowser.class)).orElse(false);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        List<String> browsers = browsersFor(context);
+        logger.info("Fanning out {} to browsers {}", context.getDisplayName(), browsers);
+        return browsers.stream().map(browser -> new BrowserInvocation(context.getDisplayName(), browser));
+    }
+
+    private static List<String> browsersFor(ExtensionContext context) {
+        String[] browsers = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), CrossBrowser.class)
+                .map(CrossBrowser::value)
+                .orElse(new String[0]);
+        if (browsers.length > 0) {
+            return List.of(browsers);
+        }
+        return TestSettings.FANOUT_BROWSERS.isEmpty() ? DEFAULT_BROWSERS : TestSettings.FANOUT_BROWSERS;
+    }
+
+    /**
+     * One browser of a cross-browser test; binds the browser to the thread for the invocation's lifecycle
+     */
+    private record BrowserInvocation(String testName, String browser)
+            implements TestTemplateInvocationContext, BeforeEachCallback, AfterEachCallback {
+
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            return testName + " [" + browser + "]";
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return List.of(this);
+        }
+
+        @Override
+        public void beforeEach(ExtensionContext context) {
+            CURRENT_BROWSER.set(browser);
+        }
+
+        @Override
+        public void afterEach(ExtensionContext context) {
+            CURRENT_BROWSER.remove();
+        }
+    }
+}
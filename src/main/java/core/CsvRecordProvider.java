@@ -0,0 +1,209 @@
+package core;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+import utils.CsvRowReader;
+import utils.Helper;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static utils.Constants.RESOURCES_PATH;
+
+/**
+ * CsvRecordProvider streams the rows of a {@link CsvRecordSource} file into a parameterized test. Rows are read
+ * one at a time from a memory-mapped {@link CsvRowReader} as JUnit asks for the next invocation, so only the
+ * rows in flight are on the heap. When the suite is sharded, rows are dealt round-robin to the shards and each
+ * shard only parses its own rows; with {@link CsvRecordSource#perFork()} they are dealt to every fork of every shard.
+ */
+public class CsvRecordProvider extends Helper implements ArgumentsProvider, AnnotationConsumer<CsvRecordSource> {
+    private CsvRecordSource source;
+
+    public CsvRecordProvider() {
+        super();
+    }
+
+    @Override
+    public void accept(CsvRecordSource csvRecordSource) {
+        this.source = csvRecordSource;
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) throws Exception {
+        Path file = Paths.get(source.value());
+        if (!file.isAbsolute()) {
+            file = Paths.get(RESOURCES_PATH, source.value());
+        }
+
+        ShardSpec partition = partitionOf(source.partitioned() ? TestSettings.SHARD : null,
+                source.partitioned() && source.perFork() ? TestSettings.FORK_NUMBER : 1,
+                source.partitioned() && source.perFork() ? TestSettings.FORK_COUNT : 1);
+        logger.info("Streaming rows of {}{}", file, partition.total() == 1 ? "" : " for partition " + partition);
+        return provideArguments(context, file, partition);
+    }
+
+    /**
+     * Streams the rows of one partition of a CSV file as arguments of the test method
+     * @param context Extension context of the parameterized test
+     * @param file CSV file with a header row
+     * @param partition Partition to read, dealt rows round-robin
+     * @return Arguments, one per row of the partition
+     * @throws IOException if the file cannot be opened
+     */
+    Stream<? extends Arguments> provideArguments(ExtensionContext context, Path file, ShardSpec partition) throws IOException {
+        CsvRowReader reader = CsvRowReader.open(file, partition.index() - 1, partition.total());
+        Function<String[], Arguments> mapper = mapperFor(context.getRequiredTestMethod(), reader.getHeader());
+        return reader.stream().map(mapper);
+    }
+
+    /**
+     * Gets the partition of the rows a fork reads: the rows of a shard are split again between its forks
+     * @param shard Shard of the suite, or null if it is not sharded
+     * @param forkNumber 1-based fork of the shard
+     * @param forkCount Number of forks of the shard
+     * @return 1-based partition out of shards times forks partitions
+     */
+    static ShardSpec partitionOf(ShardSpec shard, int forkNumber, int forkCount) {
+        int forks = Math.max(1, forkCount);
+        int fork = Math.floorMod(forkNumber - 1, forks);
+        if (shard == null) {
+            return new ShardSpec(fork + 1, forks);
+        }
+        return new ShardSpec((shard.index() - 1) * forks + fork + 1, shard.total() * forks);
+    }
+
+    private static Function<String[], Arguments> mapperFor(Method testMethod, String[] header) {
+        Class<?>[] parameterTypes = testMethod.getParameterTypes();
+        if (parameterTypes.length > 0 && parameterTypes[0].isRecord()) {
+            Function<String[], Object> toRecord = recordMapper(parameterTypes[0], header);
+            return row -> Arguments.of(toRecord.apply(row));
+        }
+        if (parameterTypes.length > 0 && Map.class.isAssignableFrom(parameterTypes[0])) {
+            return row -> {
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int i = 0; i < header.length && i < row.length; i++) {
+                    values.put(header[i], row[i]);
+                }
+                return Arguments.of(values);
+            };
+        }
+        return row -> Arguments.of((Object[]) Arrays.copyOf(row, Math.min(row.length, parameterTypes.length)));
+    }
+
+    /**
+     * Builds a mapper from rows to a record whose component names match the normalized column names
+     */
+    private static Function<String[], Object> recordMapper(Class<?> recordType, String[] header) {
+        RecordComponent[] components = recordType.getRecordComponents();
+        int[] columns = new int[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            columns[i] = columnOf(header, components[i].getName());
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("No column for record component " + recordType.getSimpleName() + "."
+                        + components[i].getName() + " in header " + Arrays.toString(header));
+            }
+            types[i] = components[i].getType();
+        }
+
+        Constructor<?> constructor;
+        try {
+            constructor = recordType.getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Record " + recordType.getName() + " has no canonical constructor", e);
+        }
+
+        return row -> {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = convert(columns[i] < row.length ? row[columns[i]] : null, types[i]);
+            }
+            try {
+                return constructor.newInstance(values);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Cannot map row " + Arrays.toString(row) + " to " + recordType.getSimpleName(), e);
+            }
+        };
+    }
+
+    private static int columnOf(String[] header, String componentName) {
+        String wanted = normalize(componentName);
+        for (int i = 0; i < header.length; i++) {
+            if (normalize(header[i]).equals(wanted)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String normalize(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Object defaultOf(Class<?> primitive) {
+        if (primitive == boolean.class) {
+            return false;
+        }
+        if (primitive == long.class) {
+            return 0L;
+        }
+        if (primitive == double.class) {
+            return 0.0;
+        }
+        return 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(String value, Class<?> type) {
+        String text = value == null ? null : value.trim();
+        boolean blank = text == null || text.isEmpty();
+        if (type == String.class) {
+            return value;
+        }
+        if (blank) {
+            return type.isPrimitive() ? defaultOf(type) : null;
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer.parseInt(text);
+        }
+        if (type == long.class || type == Long.class) {
+            return Long.parseLong(text);
+        }
+        if (type == double.class || type == Double.class) {
+            return Double.parseDouble(text);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return Boolean.parseBoolean(text);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(text);
+        }
+        if (type == LocalDate.class) {
+            try {
+                return LocalDate.parse(text);
+            } catch (DateTimeParseException e) {
+                return Helper.convertStringToDate(text);
+            }
+        }
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<? extends Enum>) type, text.toUpperCase(Locale.ROOT));
+        }
+        throw new IllegalArgumentException("Unsupported CSV column type " + type.getName());
+    }
+}
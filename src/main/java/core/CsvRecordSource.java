@@ -0,0 +1,44 @@
+package core;
+
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Feeds a @ParameterizedTest with the rows of a CSV file, streamed lazily by {@link CsvRecordProvider}.
+ * A single record parameter receives each row mapped by header name (Address Name -> addressName),
+ * a Map parameter receives header -> value, otherwise the columns are passed positionally.
+ *
+ * Usage:
+ * - @CsvRecordSource("addresses.csv") reads src/main/resources/addresses.csv
+ * - With -Dshard=i/n every shard runs the test on its own slice of the rows
+ * - With perFork = true the slice of a shard is split again between the surefire forks
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ArgumentsSource(CsvRecordProvider.class)
+public @interface CsvRecordSource {
+
+    /**
+     * CSV file with a header row
+     * @return Path relative to src/main/resources, or an absolute path
+     */
+    String value();
+
+    /**
+     * Whether the rows are split across shards instead of the test running in only one shard
+     * @return true to give every shard its own slice of the rows
+     */
+    boolean partitioned() default true;
+
+    /**
+     * Whether the rows of a shard are also split between its surefire forks. Surefire hands every test class to
+     * a single fork, so only enable this when the class is run in every fork, e.g. by one execution per fork;
+     * otherwise the slices of the other forks are never run.
+     * @return true to give every fork (TestSettings.FORK_NUMBER of TestSettings.FORK_COUNT) its own slice
+     */
+    boolean perFork() default false;
+}
@@ -0,0 +1,251 @@
+package core;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import utils.Helper;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * DomWait resolves element waits inside the browser. A single async script checks the condition,
+ * then re-checks on every DOM mutation (and on a short in-page timer for CSS-only changes such as :hover),
+ * so the wait returns as soon as the page satisfies it instead of on the next 500 ms client-side poll.
+ * Drivers or locators that cannot run the script fall back to client-side polling with adaptive backoff.
+ * Wait latencies are recorded per condition in {@link ActionMetrics} as DomWait.until_&lt;condition&gt;.
+ */
+public class DomWait extends Helper {
+
+    /**
+     * Conditions supported by the wait engine
+     */
+    public enum Condition { VISIBLE, CLICKABLE, GONE, TEXT_MATCHES }
+
+    private static final long MIN_POLL_MS = 25;
+    private static final long MAX_POLL_MS = 500;
+    private static final long MAX_SCRIPT_WAIT_MS = 25_000;
+    /** Chrome: "document unloaded while waiting for result", Firefox: "Document was unloaded" */
+    private static final String DOCUMENT_UNLOADED = "unloaded";
+
+    private static final String WAIT_SCRIPT = ScriptLocators.FUNCTIONS + "\n" + String.join("\n",
+            "var using = arguments[0], value = arguments[1], condition = arguments[2], pattern = arguments[3];",
+            "var timeout = arguments[4], done = arguments[arguments.length - 1];",
+            "function check() {",
+            "  var el = locate(using, value);",
+            "  switch (condition) {",
+            "    case 'VISIBLE': return visible(el) ? { element: el } : null;",
+            "    case 'CLICKABLE': return visible(el) && !el.disabled ? { element: el } : null;",
+            "    case 'GONE': return visible(el) ? null : { element: null };",
+            "    case 'TEXT_MATCHES': return visible(el) && new RegExp(pattern).test(el.innerText) ? { element: el } : null;",
+            "  }",
+            "  return null;",
+            "}",
+            "var initial = check();",
+            "if (initial) { done({ ok: true, element: initial.element }); return; }",
+            "var finished = false, observer, interval, timer;",
+            "function finish(result) {",
+            "  if (finished) { return; }",
+            "  finished = true;",
+            "  observer.disconnect(); clearInterval(interval); clearTimeout(timer);",
+            "  done(result ? { ok: true, element: result.element } : { ok: false });",
+            "}",
+            "function recheck() { try { var r = check(); if (r) { finish(r); } } catch (e) { finish(null); } }",
+            "observer = new MutationObserver(recheck);",
+            "observer.observe(document, { childList: true, subtree: true, attributes: true, characterData: true });",
+            "interval = setInterval(recheck, 100);",
+            "timer = setTimeout(function () { finish(null); }, timeout);");
+
+    private static final String READY_STATE_SCRIPT = String.join("\n",
+            "var target = arguments[0], done = arguments[arguments.length - 1];",
+            "function ready() { return target === 'interactive' ? document.readyState !== 'loading' : document.readyState === 'complete'; }",
+            "if (ready()) { done(true); return; }",
+            "document.addEventListener('readystatechange', function () { if (ready()) { done(true); } });");
+
+    private final WebDriver driver;
+    private boolean scriptsAvailable;
+
+    public DomWait(WebDriver driver) {
+        super();
+        this.driver = driver;
+        this.scriptsAvailable = driver instanceof JavascriptExecutor;
+    }
+
+    public WebElement untilVisible(By selector, Duration timeout) {
+        return until(Condition.VISIBLE, selector, null, timeout);
+    }
+
+    public WebElement untilClickable(By selector, Duration timeout) {
+        return until(Condition.CLICKABLE, selector, null, timeout);
+    }
+
+    public void untilGone(By selector, Duration timeout) {
+        until(Condition.GONE, selector, null, timeout);
+    }
+
+    public WebElement untilTextMatches(By selector, String regex, Duration timeout) {
+        return until(Condition.TEXT_MATCHES, selector, regex, timeout);
+    }
+
+    /**
+     * Waits until the document reaches the ready state a page load strategy would have waited for:
+     * interactive (DOMContentLoaded) for EAGER, complete (load) for NORMAL
+     * @param strategy Page load strategy to satisfy
+     * @param timeout Maximum time to wait
+     */
+    public void untilDocumentReady(PageLoadStrategy strategy, Duration timeout) {
+        if (strategy == PageLoadStrategy.NONE || !this.scriptsAvailable) {
+            return;
+        }
+        String readyState = strategy == PageLoadStrategy.EAGER ? "interactive" : "complete";
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            try {
+                ((JavascriptExecutor) this.driver).executeAsyncScript(READY_STATE_SCRIPT, readyState);
+                return;
+            } catch (ScriptTimeoutException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new TimeoutException("Timed out waiting for document ready state " + readyState, e);
+                }
+            } catch (JavascriptException e) {
+                if (!isDocumentUnloaded(e)) {
+                    throw e;
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new TimeoutException("Timed out waiting for document ready state " + readyState, e);
+                }
+                pauseAfterUnload(readyState);
+            }
+        }
+    }
+
+    /**
+     * Waits for a condition on the element located by selector
+     * @param condition Condition to wait for
+     * @param selector Element locator
+     * @param pattern Regular expression for TEXT_MATCHES, ignored otherwise
+     * @param timeout Maximum time to wait
+     * @return Matching element, or null for GONE
+     * @throws TimeoutException if the condition is not met in time
+     */
+    public WebElement until(Condition condition, By selector, String pattern, Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        try {
+            By.Remotable.Parameters parameters = ScriptLocators.parameters(selector);
+            if (this.scriptsAvailable && parameters != null) {
+                WebElement element = waitInPage(condition, selector, parameters, pattern, deadline);
+                if (this.scriptsAvailable) {
+                    return element;
+                }
+            }
+            return waitByPolling(condition, selector, pattern, deadline);
+        } finally {
+            ActionMetrics.record(DomWait.class.getSimpleName(), "until_" + condition.name().toLowerCase(Locale.ROOT), null, start);
+        }
+    }
+
+    private WebElement waitInPage(Condition condition, By selector, By.Remotable.Parameters parameters,
+                                  String pattern, long deadline) {
+        JavascriptExecutor js = (JavascriptExecutor) this.driver;
+        while (true) {
+            long remainingMs = Math.min(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), MAX_SCRIPT_WAIT_MS);
+            if (remainingMs <= 0) {
+                throw timeout(condition, selector);
+            }
+            try {
+                Object result = js.executeAsyncScript(WAIT_SCRIPT, parameters.using(), String.valueOf(parameters.value()),
+                        condition.name(), pattern, remainingMs);
+                if (result instanceof Map<?, ?> map && Boolean.TRUE.equals(map.get("ok"))) {
+                    return (WebElement) map.get("element");
+                }
+                // Timed out in the page: loop to re-check the overall deadline
+            } catch (ScriptTimeoutException e) {
+                logger.debug("In-page wait for {} exceeded the script timeout, retrying", selector);
+            } catch (UnsupportedCommandException e) {
+                logger.warn("Driver does not support async scripts, falling back to polling waits");
+                this.scriptsAvailable = false;
+                return null;
+            } catch (JavascriptException e) {
+                if (e.getMessage() != null && e.getMessage().contains(ScriptLocators.UNSUPPORTED_STRATEGY)) {
+                    return waitByPolling(condition, selector, pattern, deadline);
+                }
+                if (!isDocumentUnloaded(e)) {
+                    // Invalid locators and script errors do not go away by retrying
+                    throw e;
+                }
+                // The document was replaced while waiting (e.g. a click navigated); wait on the new one
+                logger.debug("In-page wait for {} interrupted by navigation, retrying", selector);
+                pauseAfterUnload(selector);
+            }
+        }
+    }
+
+    private static boolean isDocumentUnloaded(JavascriptException e) {
+        return e.getMessage() != null && e.getMessage().toLowerCase(Locale.ROOT).contains(DOCUMENT_UNLOADED);
+    }
+
+    /**
+     * Gives the next document a moment to start loading before the wait script is injected again
+     */
+    private static void pauseAfterUnload(Object target) {
+        try {
+            Thread.sleep(MIN_POLL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for " + target, e);
+        }
+    }
+
+    private WebElement waitByPolling(Condition condition, By selector, String pattern, long deadline) {
+        ExpectedCondition<?> expected = switch (condition) {
+            case VISIBLE -> ExpectedConditions.visibilityOfElementLocated(selector);
+            case CLICKABLE -> ExpectedConditions.elementToBeClickable(selector);
+            case GONE -> ExpectedConditions.invisibilityOfElementLocated(selector);
+            case TEXT_MATCHES -> ExpectedConditions.textMatches(selector, Pattern.compile(pattern));
+        };
+
+        long sleepMs = MIN_POLL_MS;
+        while (true) {
+            try {
+                Object result = expected.apply(this.driver);
+                if (result instanceof WebElement element) {
+                    return element;
+                }
+                if (Boolean.TRUE.equals(result)) {
+                    return condition == Condition.GONE ? null : this.driver.findElement(selector);
+                }
+            } catch (NotFoundException | StaleElementReferenceException ignored) {
+                // Not there yet
+            }
+
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sleepMs) > deadline) {
+                throw timeout(condition, selector);
+            }
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + selector, e);
+            }
+            sleepMs = Math.min(sleepMs * 2, MAX_POLL_MS);
+        }
+    }
+
+    private TimeoutException timeout(Condition condition, By selector) {
+        return new TimeoutException(String.format("Timed out waiting for %s of element %s", condition, selector));
+    }
+}
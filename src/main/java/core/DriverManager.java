@@ -1,7 +1,9 @@
 package core;
 
 import org.openqa.selenium.Platform;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.CapabilityType;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
@@ -12,11 +14,22 @@ import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import utils.Helper;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import static core.TestSettings.GRID_HUB_URL;
+import static utils.Constants.DOWNLOAD_FOLDER_PATH;
 
 /**
  * DriverManager handles WebDriver lifecycle management following POM best practices.
@@ -27,6 +40,7 @@ public class DriverManager extends Helper {
     private boolean isRemote = false;
     private URL hubUrl;
     private static final ThreadLocal<WebDriver> webDriver = new ThreadLocal<>();
+    private static final Map<WebDriver, Path> downloadDirectories = new ConcurrentHashMap<>();
 
 
     /**
@@ -39,15 +53,25 @@ public class DriverManager extends Helper {
     }
 
     public DriverManager() throws MalformedURLException {
+        this(TestSettings.BROWSER_TYPE, TestSettings.HUB_TYPE);
+    }
+
+    /**
+     * Creates a session for the given browser on the given hub type
+     * @param browserType Browser to initialize (chrome, firefox, edge)
+     * @param hubType Hub type (NONE, GRID)
+     * @throws MalformedURLException if the hub URL is malformed
+     */
+    public DriverManager(String browserType, String hubType) throws MalformedURLException {
         super();
-        if(Objects.equals(TestSettings.HUB_TYPE, "NONE")) {
-            initializeDriver(TestSettings.BROWSER_TYPE);
+        if(Objects.equals(hubType, "NONE")) {
+            initializeDriver(browserType);
 
         }else{
-            if(Objects.equals(TestSettings.HUB_TYPE, "GRID")) {
+            if(Objects.equals(hubType, "GRID")) {
                 isRemote = true;
                 this.hubUrl = java.net.URI.create(GRID_HUB_URL).toURL();
-                initializeDriver(TestSettings.BROWSER_TYPE);
+                initializeDriver(browserType);
             }
         }
     }
@@ -68,14 +92,27 @@ public class DriverManager extends Helper {
             return;
         }
 
+        String browser = browserType.toLowerCase();
+        long slotStart = System.nanoTime();
+        BrowserSlots.acquire();
+        ActionMetrics.record(DriverManager.class.getSimpleName(), "slot_wait", browser, slotStart);
         try {
-            WebDriver driver = createDriver(browserType.toLowerCase());
+            WebDriver driver;
+            long start = System.nanoTime();
+            if (TestSettings.SESSION_POOL_ENABLED) {
+                String poolKey = isRemote ? browser + "@" + this.hubUrl : browser;
+                driver = DriverPool.forKey(poolKey, () -> createDriver(browser)).lease();
+            } else {
+                driver = createDriver(browser);
+            }
+            ActionMetrics.record(DriverManager.class.getSimpleName(), "driver_acquire", browser, start);
             
             // driver.manage().timeouts().implicitlyWait(java.time.Duration.ofSeconds(TestSettings.IMPLICIT_WAIT));
 
             webDriver.set(driver);
             logger.info("WebDriver initialized successfully for browser: {}", browserType);
         } catch (Exception e) {
+            BrowserSlots.release();
             logger.error("Failed to initialize {} browser", browserType, e);
             throw new RuntimeException("Failed to initialize WebDriver for " + browserType, e);
         }
@@ -86,33 +123,71 @@ public class DriverManager extends Helper {
      * Factory method to create WebDriver instance based on browser type
      * @param browserType Browser type (chrome, firefox, edge)
      * @return WebDriver instance
-     * @throws MalformedURLException if remote hub URL is malformed
+     * @throws IOException if remote hub URL is malformed or the download directory cannot be created
      */
-    private WebDriver createDriver(String browserType) throws MalformedURLException {
-        return switch (browserType) {
-            case "chrome" -> createChromeDriver();
-            case "firefox" -> createFirefoxDriver();
-            case "edge" -> createEdgeDriver();
+    private WebDriver createDriver(String browserType) throws IOException {
+        long start = System.nanoTime();
+        Path downloadDir = createDownloadDirectory();
+        WebDriver driver = switch (browserType) {
+            case "chrome" -> createChromeDriver(downloadDir);
+            case "firefox" -> createFirefoxDriver(downloadDir);
+            case "edge" -> createEdgeDriver(downloadDir);
             default -> {
                 logger.error("Unsupported browser type: {}", browserType);
                 throw new IllegalArgumentException("Unsupported browser type: " + browserType + 
                     ". Supported types: chrome, firefox, edge");
             }
         };
+        downloadDirectories.put(driver, downloadDir);
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(TestSettings.PAGE_LOAD_TIMEOUT));
+        NetworkBlocker.apply(driver, TestSettings.BLOCKING_PROFILE, TestSettings.BLOCKED_URL_PATTERNS);
+        // Tagged with the service mode so runs with and without the shared service can be compared
+        ActionMetrics.record(DriverManager.class.getSimpleName(), "driver_create",
+                browserType + (isRemote ? "@grid" : TestSettings.SHARED_DRIVER_SERVICE ? "@shared-service" : "@own-service"), start);
+        return driver;
+    }
+
+    /**
+     * Creates an isolated download directory for a new session so parallel downloads never collide
+     * @return Path of the new download directory
+     * @throws IOException if the directory cannot be created
+     */
+    private Path createDownloadDirectory() throws IOException {
+        Path root = Paths.get(DOWNLOAD_FOLDER_PATH);
+        Files.createDirectories(root);
+        Path downloadDir = Files.createTempDirectory(root, "session-");
+        logger.debug("Created download directory {}", downloadDir);
+        return downloadDir;
+    }
+
+    /**
+     * Builds Chromium download preferences shared by Chrome and Edge
+     * @param downloadDir Directory downloads are saved to
+     * @return Preferences map for the "prefs" experimental option
+     */
+    private Map<String, Object> chromiumDownloadPrefs(Path downloadDir) {
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("download.default_directory", downloadDir.toString());
+        prefs.put("download.prompt_for_download", false);
+        prefs.put("download.directory_upgrade", true);
+        return prefs;
     }
 
     /**
      * Creates and configures Chrome WebDriver
+     * @param downloadDir Directory downloads are saved to
      * @return Configured ChromeDriver instance
      * @throws MalformedURLException if remote hub URL is malformed (for RemoteWebDriver)
      */
-    private WebDriver createChromeDriver() throws MalformedURLException {
+    private WebDriver createChromeDriver(Path downloadDir) throws MalformedURLException {
         if(!isRemote) {
             ChromeOptions options = new ChromeOptions();
             options.addArguments("--start-maximized");
             options.addArguments(String.format("--window-size=%s", TestSettings.SCREEN_RESOLUTION));
             options.addArguments("--disable-notifications");
             options.addArguments("--disable-popup-blocking");
+            options.setExperimentalOption("prefs", chromiumDownloadPrefs(downloadDir));
+            options.setPageLoadStrategy(TestSettings.PAGE_LOAD_STRATEGY);
 
             if (TestSettings.HEADLESS) {
                 options.addArguments("--headless=new");
@@ -120,12 +195,22 @@ public class DriverManager extends Helper {
             }
 
             logger.debug("Chrome browser initialized with options: {}", options.asMap());
-            return new ChromeDriver(options);
+            if (!TestSettings.SHARED_DRIVER_SERVICE) {
+                return new ChromeDriver(options);
+            }
+            try {
+                return new ChromeDriver(DriverServices.chrome(options), options);
+            } catch (SessionNotCreatedException e) {
+                logger.warn("Chrome session could not be created with the cached driver, resolving it again: {}", e.getMessage());
+                DriverServices.invalidate("chrome");
+                return new ChromeDriver(DriverServices.chrome(options), options);
+            }
         }else {
             // Remote WebDriver initialization can be implemented here
             DesiredCapabilities capabilities = new DesiredCapabilities();
             capabilities.setPlatform(Platform.WINDOWS);
             capabilities.setBrowserName("chrome");
+            capabilities.setCapability(CapabilityType.PAGE_LOAD_STRATEGY, TestSettings.PAGE_LOAD_STRATEGY);
             // Use RemoteWebDriver to connect to the hub
             return new RemoteWebDriver(this.hubUrl, capabilities);
         }
@@ -133,10 +218,16 @@ public class DriverManager extends Helper {
 
     /**
      * Creates and configures Firefox WebDriver
+     * @param downloadDir Directory downloads are saved to
      * @return Configured FirefoxDriver instance
      */
-    private WebDriver createFirefoxDriver() {
+    private WebDriver createFirefoxDriver(Path downloadDir) {
         FirefoxOptions options = new FirefoxOptions();
+        options.addPreference("browser.download.folderList", 2);
+        options.addPreference("browser.download.dir", downloadDir.toString());
+        options.addPreference("browser.download.useDownloadDir", true);
+        options.addPreference("browser.helperApps.neverAsk.saveToDisk", "text/plain,application/octet-stream");
+        options.setPageLoadStrategy(TestSettings.PAGE_LOAD_STRATEGY);
         
         if (TestSettings.HEADLESS) {
             options.addArguments("--headless");
@@ -144,16 +235,28 @@ public class DriverManager extends Helper {
         }
         
         logger.debug("Firefox browser initialized");
-        return new FirefoxDriver(options);
+        if (!TestSettings.SHARED_DRIVER_SERVICE) {
+            return new FirefoxDriver(options);
+        }
+        try {
+            return new FirefoxDriver(DriverServices.firefox(options), options);
+        } catch (SessionNotCreatedException e) {
+            logger.warn("Firefox session could not be created with the cached driver, resolving it again: {}", e.getMessage());
+            DriverServices.invalidate("firefox");
+            return new FirefoxDriver(DriverServices.firefox(options), options);
+        }
     }
 
     /**
      * Creates and configures Edge WebDriver
+     * @param downloadDir Directory downloads are saved to
      * @return Configured EdgeDriver instance
      */
-    private WebDriver createEdgeDriver() {
+    private WebDriver createEdgeDriver(Path downloadDir) {
         EdgeOptions options = new EdgeOptions();
         options.addArguments("--start-maximized");
+        options.setExperimentalOption("prefs", chromiumDownloadPrefs(downloadDir));
+        options.setPageLoadStrategy(TestSettings.PAGE_LOAD_STRATEGY);
         
         if (TestSettings.HEADLESS) {
             options.addArguments("--headless");
@@ -161,7 +264,16 @@ public class DriverManager extends Helper {
         }
         
         logger.debug("Edge browser initialized");
-        return new EdgeDriver(options);
+        if (!TestSettings.SHARED_DRIVER_SERVICE) {
+            return new EdgeDriver(options);
+        }
+        try {
+            return new EdgeDriver(DriverServices.edge(options), options);
+        } catch (SessionNotCreatedException e) {
+            logger.warn("Edge session could not be created with the cached driver, resolving it again: {}", e.getMessage());
+            DriverServices.invalidate("edge");
+            return new EdgeDriver(DriverServices.edge(options), options);
+        }
     }
 
     /**
@@ -177,6 +289,14 @@ public class DriverManager extends Helper {
         return driver;
     }
 
+    /**
+     * Checks whether the current thread holds a WebDriver instance
+     * @return true if getDriver() would return a driver
+     */
+    public static boolean hasDriver() {
+        return webDriver.get() != null;
+    }
+
     /**
      * Sets WebDriver instance for current thread (use with caution)
      * @param driver WebDriver instance to set
@@ -185,11 +305,67 @@ public class DriverManager extends Helper {
         webDriver.set(driver);
     }
 
+    /**
+     * Gets the download directory of the WebDriver instance for the current thread
+     * @return Session download directory, or the shared download folder for sessions created elsewhere
+     */
+    public static Path getDownloadDirectory() {
+        Path downloadDir = downloadDirectories.get(getDriver());
+        return downloadDir != null ? downloadDir : Paths.get(DOWNLOAD_FOLDER_PATH);
+    }
+
+    /**
+     * Empties the download directory of a session before it is reused
+     * @param driver Session whose downloads are removed
+     */
+    static void clearDownloadDirectory(WebDriver driver) {
+        Path downloadDir = downloadDirectories.get(driver);
+        if (downloadDir != null) {
+            deleteDirectory(downloadDir);
+            try {
+                Files.createDirectories(downloadDir);
+            } catch (IOException e) {
+                logger.warn("Failed to recreate download directory {}", downloadDir, e);
+            }
+        }
+    }
+
+    /**
+     * Releases the per-session resources (download directory, DevTools listeners) of a session that has been quit
+     * @param driver Session that has been quit
+     */
+    static void cleanUpSession(WebDriver driver) {
+        NavigationState.forget(driver);
+        NetworkBlocker.detach(driver);
+        deleteDownloadDirectory(driver);
+    }
+
+    private static void deleteDownloadDirectory(WebDriver driver) {
+        Path downloadDir = downloadDirectories.remove(driver);
+        if (downloadDir != null) {
+            deleteDirectory(downloadDir);
+        }
+    }
+
+    private static void deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Failed to delete directory {}", directory, e);
+        }
+    }
+
     /**
      * Removes WebDriver instance from ThreadLocal for current thread
      * Should be called after quit() to prevent memory leaks
      */
     private static void removeDriver() {
+        if (webDriver.get() != null) {
+            BrowserSlots.release();
+        }
         webDriver.remove();
     }
 
@@ -228,6 +404,24 @@ public class DriverManager extends Helper {
         return url;
     }
 
+    /**
+     * Returns the WebDriver instance to the session pool so the next test can reuse the warm browser.
+     * Falls back to quit() when pooling is disabled or the session is not pooled.
+     * Also removes WebDriver from ThreadLocal to prevent memory leaks
+     */
+    public void release() {
+        WebDriver driver = webDriver.get();
+
+        long start = System.nanoTime();
+        if (driver != null && DriverPool.release(driver)) {
+            ActionMetrics.record(DriverManager.class.getSimpleName(), "driver_release", null, start);
+            removeDriver();
+            logger.debug("WebDriver returned to session pool and removed from ThreadLocal");
+        } else {
+            quit();
+        }
+    }
+
     /**
      * Quits the WebDriver instance and closes all associated windows
      * Also removes WebDriver from ThreadLocal to prevent memory leaks
@@ -238,12 +432,17 @@ public class DriverManager extends Helper {
         if (driver != null) {
             logger.info("Quitting WebDriver");
             try {
+                long start = System.nanoTime();
+                DriverPool.discard(driver);
                 driver.quit();
+                ActionMetrics.record(DriverManager.class.getSimpleName(), "driver_quit", null, start);
+                cleanUpSession(driver);
                 removeDriver();
                 logger.debug("WebDriver quit successfully and removed from ThreadLocal");
             } catch (Exception e) {
                 logger.error("Error while quitting WebDriver", e);
                 // Still try to remove from ThreadLocal even if quit fails
+                cleanUpSession(driver);
                 removeDriver();
             }
         } else {
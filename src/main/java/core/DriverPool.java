@@ -0,0 +1,293 @@
+package core;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import utils.Helper;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DriverPool keeps warm browser sessions for the lifetime of a fork so tests lease a running browser
+ * instead of launching a new one. Sessions are reset when they are returned and retired when they fail
+ * a health check or have served {@link TestSettings#SESSION_MAX_USES} tests.
+ */
+public class DriverPool extends Helper {
+
+    /**
+     * Creates a new browser session for the pool.
+     */
+    @FunctionalInterface
+    public interface SessionFactory {
+        WebDriver create() throws Exception;
+    }
+
+    private static final long WARMUP_WAIT_SECONDS = 60;
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    private static final Map<String, DriverPool> POOLS = new ConcurrentHashMap<>();
+    private static final ExecutorService WARMUP_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "driver-pool-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdownAll, "driver-pool-shutdown"));
+    }
+
+    private final String key;
+    private final SessionFactory factory;
+    private final BlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+    /** Guards pendingWarmups and waitingLeasers; notified whenever a warm-up ends or a session is returned */
+    private final Object warmupSignal = new Object();
+    private int pendingWarmups;
+    private int waitingLeasers;
+
+    private DriverPool(String key, SessionFactory factory) {
+        super();
+        this.key = key;
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the pool for the given key, creating it and pre-warming
+     * {@link TestSettings#SESSION_POOL_SIZE} sessions in the background on first use.
+     * @param key Pool key (browser type plus execution target)
+     * @param factory Factory used to start new sessions for this pool
+     * @return DriverPool instance for the key
+     */
+    public static DriverPool forKey(String key, SessionFactory factory) {
+        return POOLS.computeIfAbsent(key, k -> {
+            DriverPool pool = new DriverPool(k, factory);
+            pool.prewarm(TestSettings.SESSION_POOL_SIZE);
+            return pool;
+        });
+    }
+
+    /**
+     * Leases a healthy session, waiting for an in-flight warm-up before launching a new browser
+     * @return WebDriver session owned by the caller until released
+     * @throws Exception if a new session cannot be started
+     */
+    public WebDriver lease() throws Exception {
+        PooledSession session;
+        while ((session = nextIdleSession()) != null) {
+            if (isHealthy(session)) {
+                break;
+            }
+            logger.warn("Evicting unhealthy session from pool {}", key);
+            quitQuietly(session.driver);
+        }
+
+        if (session == null) {
+            session = newSession();
+        }
+        session.uses++;
+        leasedSessions.put(session.driver, session);
+        logger.debug("Leased session from pool {} (use {}/{}, idle {})",
+                key, session.uses, TestSettings.SESSION_MAX_USES, idleSessions.size());
+        return session.driver;
+    }
+
+    /**
+     * Returns a leased session to its pool. The session is reset before it is reused
+     * and quit instead if it is worn out, cannot be reset or the pool is already full.
+     * @param driver Session previously leased from a pool
+     * @return true if the session was managed by a pool, false otherwise
+     */
+    public static boolean release(WebDriver driver) {
+        for (DriverPool pool : POOLS.values()) {
+            PooledSession session = pool.leasedSessions.remove(driver);
+            if (session != null) {
+                pool.recycle(session);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a leased session from its pool without reusing it (the caller quits it)
+     * @param driver Session previously leased from a pool
+     */
+    public static void discard(WebDriver driver) {
+        for (DriverPool pool : POOLS.values()) {
+            if (pool.leasedSessions.remove(driver) != null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Quits every idle and leased session of every pool
+     */
+    public static void shutdownAll() {
+        for (DriverPool pool : POOLS.values()) {
+            PooledSession session;
+            while ((session = pool.idleSessions.pollFirst()) != null) {
+                quitQuietly(session.driver);
+            }
+            pool.leasedSessions.keySet().forEach(DriverPool::quitQuietly);
+            pool.leasedSessions.clear();
+        }
+    }
+
+    private void prewarm(int size) {
+        logger.info("Pre-warming {} session(s) for pool {}", size, key);
+        synchronized (warmupSignal) {
+            pendingWarmups += size;
+        }
+        for (int i = 0; i < size; i++) {
+            WARMUP_EXECUTOR.submit(() -> {
+                try {
+                    idleSessions.offerLast(newSession());
+                } catch (Exception e) {
+                    logger.warn("Failed to pre-warm session for pool {}: {}", key, e.getMessage());
+                } finally {
+                    synchronized (warmupSignal) {
+                        pendingWarmups--;
+                        warmupSignal.notifyAll();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Takes an idle session, waiting for an in-flight warm-up only while it can still serve this caller:
+     * once there are as many waiting leasers as pending warm-ups, or a warm-up fails, the caller gets null
+     * and starts its own session right away
+     */
+    private PooledSession nextIdleSession() throws InterruptedException {
+        PooledSession session = idleSessions.pollFirst();
+        if (session != null) {
+            return session;
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_WAIT_SECONDS);
+        synchronized (warmupSignal) {
+            while ((session = idleSessions.pollFirst()) == null && waitingLeasers < pendingWarmups) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    break;
+                }
+                waitingLeasers++;
+                try {
+                    warmupSignal.wait(remainingMs);
+                } finally {
+                    waitingLeasers--;
+                }
+            }
+        }
+        return session;
+    }
+
+    private PooledSession newSession() throws Exception {
+        long start = System.nanoTime();
+        WebDriver driver = factory.create();
+        PooledSession session = new PooledSession(driver, driver.getWindowHandle());
+        logger.info("Started new session for pool {} in {} ms", key, (System.nanoTime() - start) / 1_000_000);
+        return session;
+    }
+
+    private void recycle(PooledSession session) {
+        if (session.uses >= TestSettings.SESSION_MAX_USES) {
+            logger.debug("Retiring session from pool {} after {} uses", key, session.uses);
+            quitQuietly(session.driver);
+        } else if (!reset(session)) {
+            logger.warn("Retiring session from pool {} because it could not be reset", key);
+            quitQuietly(session.driver);
+        } else if (idleSessions.size() >= TestSettings.SESSION_POOL_SIZE) {
+            logger.debug("Pool {} is full, quitting returned session", key);
+            quitQuietly(session.driver);
+        } else {
+            idleSessions.offerFirst(session);
+            synchronized (warmupSignal) {
+                warmupSignal.notifyAll();
+            }
+        }
+    }
+
+    private boolean isHealthy(PooledSession session) {
+        try {
+            session.driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Brings a session back to a blank state: no alert, a single window, no cookies or web storage
+     * and about:blank loaded. Web storage is cleared for the origin the test finished on.
+     */
+    private boolean reset(PooledSession session) {
+        WebDriver driver = session.driver;
+        try {
+            try {
+                driver.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException ignored) {
+                // Nothing to dismiss
+            }
+
+            Set<String> handles = driver.getWindowHandles();
+            if (handles.isEmpty()) {
+                return false;
+            }
+            String keepHandle = handles.contains(session.baseHandle) ? session.baseHandle : handles.iterator().next();
+            for (String handle : handles) {
+                if (!handle.equals(keepHandle)) {
+                    driver.switchTo().window(handle);
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(keepHandle);
+            driver.switchTo().defaultContent();
+            session.baseHandle = keepHandle;
+
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            driver.manage().deleteAllCookies();
+            if (driver instanceof HasCdp cdp) {
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            }
+            driver.get("about:blank");
+            NavigationState.forget(driver);
+            DriverManager.clearDownloadDirectory(driver);
+            return true;
+        } catch (WebDriverException e) {
+            logger.warn("Failed to reset session from pool {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Error while quitting pooled session: {}", e.getMessage());
+        }
+        DriverManager.cleanUpSession(driver);
+    }
+
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private String baseHandle;
+        private int uses;
+
+        private PooledSession(WebDriver driver, String baseHandle) {
+            this.driver = driver;
+            this.baseHandle = baseHandle;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package core;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+import utils.Helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Supplier;
+
+import static utils.Constants.DRIVER_CACHE_PATH;
+
+/**
+ * DriverServices starts one chromedriver/msedgedriver process per browser type per fork and creates every
+ * session against it, instead of spawning a driver process per session. geckodriver only serves one session
+ * at a time, so Firefox services are kept idle between sessions and reused rather than shared.
+ * The driver and browser binaries resolved by Selenium Manager are cached in .selenium-cache/drivers.properties
+ * so later runs skip the resolution; the cache is dropped when a binary disappears, the entry is older than
+ * {@link #CACHE_MAX_AGE} or a session cannot be created with the cached binaries.
+ */
+public final class DriverServices extends Helper {
+    private static final Duration CACHE_MAX_AGE = Duration.ofDays(7);
+
+    private static final Map<String, DriverService> SHARED = new ConcurrentHashMap<>();
+    private static final BlockingDeque<ReusableGeckoService> IDLE_GECKO = new LinkedBlockingDeque<>();
+    private static final Queue<DriverService> STARTED = new ConcurrentLinkedQueue<>();
+    private static final Map<String, BinaryPaths> RESOLVED = new ConcurrentHashMap<>();
+    private static volatile boolean shuttingDown;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServices::stopAll, "driver-services-shutdown"));
+    }
+
+    /**
+     * Driver and browser binaries of one browser type
+     * @param driver Path of the driver executable
+     * @param browser Path of the browser executable, null to let the driver find the browser
+     */
+    record BinaryPaths(String driver, String browser) {
+    }
+
+    private DriverServices() {
+        super();
+    }
+
+    /**
+     * Gets the shared chromedriver service, starting it on first use, and points the options at the cached browser
+     * @param options Options of the session about to be created
+     * @return Running service shared by all Chrome sessions of this fork
+     */
+    public static ChromeDriverService chrome(ChromeOptions options) {
+        BinaryPaths paths = binaries("chrome", options, () -> new ChromeDriverService.Builder().build());
+        if (paths.browser() != null) {
+            options.setBinary(paths.browser());
+        }
+        return (ChromeDriverService) SHARED.computeIfAbsent("chrome", k -> start("chrome", new ChromeDriverService.Builder() {
+            @Override
+            protected ChromeDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                                                              Map<String, String> environment) {
+                try {
+                    return new SharedChromeService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }.usingDriverExecutable(new File(paths.driver())).withSilent(true).build()));
+    }
+
+    /**
+     * Gets the shared msedgedriver service, starting it on first use, and points the options at the cached browser
+     * @param options Options of the session about to be created
+     * @return Running service shared by all Edge sessions of this fork
+     */
+    public static EdgeDriverService edge(EdgeOptions options) {
+        BinaryPaths paths = binaries("edge", options, () -> new EdgeDriverService.Builder().build());
+        if (paths.browser() != null) {
+            options.setBinary(paths.browser());
+        }
+        return (EdgeDriverService) SHARED.computeIfAbsent("edge", k -> start("edge", new EdgeDriverService.Builder() {
+            @Override
+            protected EdgeDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                                                            Map<String, String> environment) {
+                try {
+                    return new SharedEdgeService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }.usingDriverExecutable(new File(paths.driver())).withSilent(true).build()));
+    }
+
+    /**
+     * Leases an idle geckodriver service (or starts one) and points the options at the cached browser.
+     * The service returns itself to the idle queue when its session quits.
+     * @param options Options of the session about to be created
+     * @return Running service owned by the new Firefox session
+     */
+    public static GeckoDriverService firefox(FirefoxOptions options) {
+        BinaryPaths paths = binaries("firefox", options, () -> new GeckoDriverService.Builder().build());
+        if (paths.browser() != null) {
+            options.setBinary(paths.browser());
+        }
+        ReusableGeckoService idle;
+        while ((idle = IDLE_GECKO.pollFirst()) != null) {
+            if (idle.isRunning()) {
+                return idle;
+            }
+            idle.shutdown();
+        }
+        return (GeckoDriverService) start("firefox", new GeckoDriverService.Builder() {
+            @Override
+            protected GeckoDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                                                             Map<String, String> environment) {
+                try {
+                    return new ReusableGeckoService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }.usingDriverExecutable(new File(paths.driver())).build());
+    }
+
+    /**
+     * Forgets the cached binaries and the shared service of a browser type, e.g. after the browser updated and
+     * the cached driver no longer matches. Sessions still running on the old service are left alone.
+     * @param browserType Browser type (chrome, firefox, edge)
+     */
+    public static void invalidate(String browserType) {
+        logger.warn("Dropping cached driver binaries and service for {}", browserType);
+        RESOLVED.remove(browserType);
+        SHARED.remove(browserType);
+        synchronized (DriverServices.class) {
+            Properties cache = readCache();
+            cache.stringPropertyNames().stream()
+                    .filter(key -> key.startsWith(browserType + "."))
+                    .forEach(cache::remove);
+            writeCache(cache);
+        }
+    }
+
+    private static DriverService start(String browserType, DriverService service) {
+        long start = System.nanoTime();
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start driver service for " + browserType, e);
+        }
+        STARTED.add(service);
+        logger.info("Started {} driver service at {} in {} ms", browserType, service.getUrl(), (System.nanoTime() - start) / 1_000_000);
+        return service;
+    }
+
+    /**
+     * Gets the binaries of a browser type from this JVM, the on-disk cache or Selenium Manager, in that order
+     */
+    private static BinaryPaths binaries(String browserType, Capabilities options, Supplier<DriverService> probe) {
+        return RESOLVED.computeIfAbsent(browserType, k -> {
+            long start = System.nanoTime();
+            synchronized (DriverServices.class) {
+                Properties cache = readCache();
+                BinaryPaths cached = fromCache(cache, browserType);
+                if (cached != null) {
+                    logger.info("Using cached {} binaries: driver {}, browser {}", browserType, cached.driver(), cached.browser());
+                    return cached;
+                }
+
+                DriverFinder finder = new DriverFinder(probe.get(), options);
+                BinaryPaths resolved = new BinaryPaths(finder.getDriverPath(), finder.hasBrowserPath() ? finder.getBrowserPath() : null);
+                cache.setProperty(browserType + ".driver", resolved.driver());
+                if (resolved.browser() != null) {
+                    cache.setProperty(browserType + ".browser", resolved.browser());
+                }
+                cache.setProperty(browserType + ".resolvedAt", Instant.now().toString());
+                writeCache(cache);
+                logger.info("Resolved {} binaries in {} ms: driver {}, browser {}", browserType,
+                        (System.nanoTime() - start) / 1_000_000, resolved.driver(), resolved.browser());
+                return resolved;
+            }
+        });
+    }
+
+    private static BinaryPaths fromCache(Properties cache, String browserType) {
+        String driver = cache.getProperty(browserType + ".driver");
+        String browser = cache.getProperty(browserType + ".browser");
+        String resolvedAt = cache.getProperty(browserType + ".resolvedAt");
+        if (driver == null || resolvedAt == null || !Files.isExecutable(Paths.get(driver))
+                || (browser != null && !Files.exists(Paths.get(browser)))) {
+            return null;
+        }
+        try {
+            if (Instant.parse(resolvedAt).plus(CACHE_MAX_AGE).isBefore(Instant.now())) {
+                return null;
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return new BinaryPaths(driver, browser);
+    }
+
+    private static Properties readCache() {
+        Properties cache = new Properties();
+        Path file = Paths.get(DRIVER_CACHE_PATH);
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                cache.load(reader);
+            } catch (IOException e) {
+                logger.warn("Failed to read driver cache {}: {}", file, e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    private static void writeCache(Properties cache) {
+        Path file = Paths.get(DRIVER_CACHE_PATH);
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                cache.store(writer, "Driver and browser binaries resolved by Selenium Manager");
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write driver cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void stopAll() {
+        shuttingDown = true;
+        // Sessions must be quit while their driver service is still running
+        DriverPool.shutdownAll();
+        DriverService service;
+        while ((service = STARTED.poll()) != null) {
+            try {
+                if (service instanceof SharedChromeService shared) {
+                    shared.shutdown();
+                } else if (service instanceof SharedEdgeService shared) {
+                    shared.shutdown();
+                } else if (service instanceof ReusableGeckoService reusable) {
+                    reusable.shutdown();
+                }
+            } catch (Exception e) {
+                shutdownMessage("Failed to stop driver service: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * chromedriver service that outlives the sessions created on it
+     */
+    private static final class SharedChromeService extends ChromeDriverService {
+        SharedChromeService(File exe, int port, Duration timeout, List<String> args, Map<String, String> environment) throws IOException {
+            super(exe, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Called by ChromeDriver.quit(); the service keeps serving other sessions until the fork ends
+        }
+
+        void shutdown() {
+            super.stop();
+        }
+    }
+
+    /**
+     * msedgedriver service that outlives the sessions created on it
+     */
+    private static final class SharedEdgeService extends EdgeDriverService {
+        SharedEdgeService(File exe, int port, Duration timeout, List<String> args, Map<String, String> environment) throws IOException {
+            super(exe, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Called by EdgeDriver.quit(); the service keeps serving other sessions until the fork ends
+        }
+
+        void shutdown() {
+            super.stop();
+        }
+    }
+
+    /**
+     * geckodriver service that goes back to the idle queue when its session quits
+     */
+    private static final class ReusableGeckoService extends GeckoDriverService {
+        ReusableGeckoService(File exe, int port, Duration timeout, List<String> args, Map<String, String> environment) throws IOException {
+            super(exe, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            if (shuttingDown || !isRunning()) {
+                super.stop();
+            } else if (!IDLE_GECKO.contains(this)) {
+                IDLE_GECKO.offerFirst(this);
+            }
+        }
+
+        void shutdown() {
+            super.stop();
+        }
+    }
+}
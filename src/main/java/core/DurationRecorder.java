@@ -0,0 +1,84 @@
+package core;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import utils.Helper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DurationRecorder measures how long every test class and test method takes and merges the results
+ * into {@link TestHistory} when the fork exits, so the next run can shard and order by duration.
+ * Surefire runs one launcher execution per test class in a reused fork, so durations are collected across
+ * executions and merged once per fork; merging per execution would average the same values in repeatedly.
+ * Classes none of whose tests ran (all disabled or quarantined) are not recorded, and nothing is recorded in
+ * the quarantined flaky phase, so near-zero durations never get averaged into the history.
+ * Registered through META-INF/services, so every JUnit Platform launcher picks it up.
+ */
+public class DurationRecorder extends Helper implements TestExecutionListener {
+    private static final Map<String, Long> CLASS_DURATIONS = new ConcurrentHashMap<>();
+    private static final Map<String, Long> TEST_DURATIONS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DurationRecorder::mergeRecorded, "test-history-merge"));
+    }
+
+    private final Map<String, Long> startNanos = new ConcurrentHashMap<>();
+    /** Classes with at least one test that started */
+    private final Set<String> executedClasses = ConcurrentHashMap.newKeySet();
+
+    public DurationRecorder() {
+        super();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        startNanos.put(testIdentifier.getUniqueId(), System.nanoTime());
+        if (testIdentifier.isTest() && testIdentifier.getSource().orElse(null) instanceof MethodSource methodSource) {
+            executedClasses.add(methodSource.getClassName());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Long start = startNanos.remove(testIdentifier.getUniqueId());
+        if (start == null || isQuarantinedPhase()) {
+            return;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        TestSource source = testIdentifier.getSource().orElse(null);
+        if (testIdentifier.isContainer() && source instanceof ClassSource classSource) {
+            if (!executedClasses.contains(classSource.getClassName())) {
+                return;
+            }
+            CLASS_DURATIONS.merge(classSource.getClassName(), millis, Long::sum);
+        } else if (testIdentifier.isTest() && source instanceof MethodSource methodSource) {
+            // Repeated and parameterized invocations add up to the duration of the method
+            TEST_DURATIONS.merge(methodSource.getClassName() + "#" + methodSource.getMethodName(), millis, Long::sum);
+        }
+    }
+
+    private static boolean isQuarantinedPhase() {
+        return TestSettings.FLAKY_PHASE.toLowerCase(Locale.ROOT).equals("quarantined");
+    }
+
+    private static void mergeRecorded() {
+        if (CLASS_DURATIONS.isEmpty()) {
+            return;
+        }
+        try {
+            TestHistory.merge(CLASS_DURATIONS, TEST_DURATIONS);
+        } catch (IOException e) {
+            shutdownMessage("Failed to record test durations: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package core;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * ElementCache keeps resolved WebElement references of a page object keyed by locator,
+ * so repeated reads of the same element skip the locate round trip.
+ * Every hit is one findElement call (and its visibility wait) saved. Hits, misses and stale references are
+ * counted in {@link ActionMetrics} as element_cache_hit, element_cache_miss and element_cache_stale of the page.
+ */
+public class ElementCache {
+    private final String page;
+    private final Map<By, WebElement> elements = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    /**
+     * @param page Page object the cache belongs to, used to tag its metrics
+     */
+    public ElementCache(String page) {
+        this.page = page;
+    }
+
+    /**
+     * Gets the cached element for a locator, resolving and caching it on a miss
+     * @param selector Element locator
+     * @param resolver Function used to locate the element on a miss
+     * @return Cached or freshly resolved element
+     */
+    public WebElement get(By selector, Function<By, WebElement> resolver) {
+        long start = System.nanoTime();
+        WebElement element = elements.get(selector);
+        if (element != null) {
+            hits.incrementAndGet();
+            ActionMetrics.record(page, "element_cache_hit", null, start);
+            return element;
+        }
+        misses.incrementAndGet();
+        element = resolver.apply(selector);
+        elements.put(selector, element);
+        ActionMetrics.record(page, "element_cache_miss", null, start);
+        return element;
+    }
+
+    /**
+     * Runs an action against the cached element of a locator. If the reference has gone stale, it is
+     * evicted, re-resolved and the action is retried once.
+     * @param selector Element locator
+     * @param resolver Function used to locate the element on a miss
+     * @param action Action to run against the element
+     * @return Result of the action
+     */
+    public <T> T apply(By selector, Function<By, WebElement> resolver, Function<WebElement, T> action) {
+        try {
+            return action.apply(get(selector, resolver));
+        } catch (StaleElementReferenceException e) {
+            evictStale(selector);
+            return action.apply(get(selector, resolver));
+        }
+    }
+
+    /**
+     * Drops a reference that turned out to be stale so the next lookup re-resolves it
+     * @param selector Element locator
+     */
+    public void evictStale(By selector) {
+        stale.incrementAndGet();
+        ActionMetrics.record(page, "element_cache_stale", null, System.nanoTime());
+        elements.remove(selector);
+    }
+
+    /**
+     * Drops all references, e.g. after navigation or a window switch
+     */
+    public void invalidate() {
+        elements.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getStaleCount() {
+        return stale.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, stale=%d", hits.get(), misses.get(), stale.get());
+    }
+}
@@ -0,0 +1,159 @@
+package core;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ElementSnapshot holds the text, value, visibility and attributes of several elements
+ * read together in one executeScript round trip instead of one locate/wait/read sequence per element.
+ */
+public class ElementSnapshot {
+
+    /**
+     * Element properties that can be read besides attributes
+     */
+    public enum Field { TEXT, VALUE, VISIBLE }
+
+    /**
+     * State of one element at the time of the read. Fields that were not requested are empty/false.
+     */
+    public record ElementState(boolean present, boolean visible, String text, String value, Map<String, String> attributes) {
+        static final ElementState MISSING = new ElementState(false, false, null, null, Map.of());
+    }
+
+    private static final String READ_SCRIPT = ScriptLocators.FUNCTIONS + "\n" + String.join("\n",
+            "var locators = arguments[0], fields = arguments[1], attributes = arguments[2];",
+            "return locators.map(function (locator) {",
+            "  var el = locate(locator[0], locator[1]);",
+            "  if (!el) { return { present: false }; }",
+            "  var shown = visible(el);",
+            "  var state = { present: true, visible: shown, attributes: {} };",
+            "  if (fields.indexOf('TEXT') >= 0) { state.text = shown ? el.innerText.trim() : ''; }",
+            "  if (fields.indexOf('VALUE') >= 0) { state.value = el.value === undefined ? null : String(el.value); }",
+            "  attributes.forEach(function (name) { state.attributes[name] = el.getAttribute(name); });",
+            "  return state;",
+            "});");
+
+    private final Map<By, ElementState> states;
+
+    private ElementSnapshot(Map<By, ElementState> states) {
+        this.states = states;
+    }
+
+    /**
+     * Reads the requested properties of all elements. Locators that cannot be evaluated in the page
+     * are read one by one through WebDriver instead. Nothing is waited for.
+     * @param driver WebDriver session
+     * @param selectors Element locators
+     * @param fields Properties to read
+     * @param attributes Attribute names to read
+     * @return ElementSnapshot with one entry per locator
+     */
+    static ElementSnapshot read(WebDriver driver, Collection<By> selectors, Set<Field> fields, List<String> attributes) {
+        Map<By, ElementState> states = new LinkedHashMap<>();
+        List<By> scripted = new ArrayList<>();
+        List<List<String>> locators = new ArrayList<>();
+
+        for (By selector : selectors) {
+            By.Remotable.Parameters parameters = ScriptLocators.parameters(selector);
+            if (parameters != null && driver instanceof JavascriptExecutor) {
+                scripted.add(selector);
+                locators.add(List.of(parameters.using(), String.valueOf(parameters.value())));
+            } else {
+                states.put(selector, readWithWebDriver(driver, selector, fields, attributes));
+            }
+        }
+
+        if (!scripted.isEmpty()) {
+            List<String> fieldNames = fields.stream().map(Field::name).toList();
+            Object result = ((JavascriptExecutor) driver).executeScript(READ_SCRIPT, locators, fieldNames, attributes);
+            List<?> rows = (List<?>) result;
+            for (int i = 0; i < scripted.size(); i++) {
+                states.put(scripted.get(i), toState((Map<?, ?>) rows.get(i)));
+            }
+        }
+        return new ElementSnapshot(states);
+    }
+
+    private static ElementState toState(Map<?, ?> row) {
+        if (!Boolean.TRUE.equals(row.get("present"))) {
+            return ElementState.MISSING;
+        }
+        Map<String, String> attributes = new HashMap<>();
+        if (row.get("attributes") instanceof Map<?, ?> values) {
+            values.forEach((name, value) -> attributes.put(String.valueOf(name), value == null ? null : String.valueOf(value)));
+        }
+        return new ElementState(true, Boolean.TRUE.equals(row.get("visible")),
+                (String) row.get("text"), (String) row.get("value"), attributes);
+    }
+
+    private static ElementState readWithWebDriver(WebDriver driver, By selector, Set<Field> fields, List<String> attributes) {
+        List<WebElement> elements = driver.findElements(selector);
+        if (elements.isEmpty()) {
+            return ElementState.MISSING;
+        }
+        WebElement element = elements.get(0);
+        boolean visible = element.isDisplayed();
+        Map<String, String> values = new HashMap<>();
+        for (String attribute : attributes) {
+            values.put(attribute, element.getDomAttribute(attribute));
+        }
+        return new ElementState(true, visible,
+                fields.contains(Field.TEXT) ? element.getText() : null,
+                fields.contains(Field.VALUE) ? element.getDomProperty("value") : null,
+                values);
+    }
+
+    /**
+     * Gets the state of an element in this snapshot
+     * @param selector Locator the snapshot was read with
+     * @return ElementState of the element
+     * @throws IllegalArgumentException if the locator was not part of the read
+     */
+    public ElementState get(By selector) {
+        ElementState state = states.get(selector);
+        if (state == null) {
+            throw new IllegalArgumentException("Element " + selector + " is not part of this snapshot");
+        }
+        return state;
+    }
+
+    public boolean isPresent(By selector) {
+        return get(selector).present();
+    }
+
+    public boolean isVisible(By selector) {
+        return get(selector).visible();
+    }
+
+    public String getText(By selector) {
+        return get(selector).text();
+    }
+
+    public String getValue(By selector) {
+        return get(selector).value();
+    }
+
+    public String getAttribute(By selector, String attributeName) {
+        return get(selector).attributes().get(attributeName);
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    @Override
+    public String toString() {
+        return states.toString();
+    }
+}
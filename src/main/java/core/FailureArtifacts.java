@@ -0,0 +1,163 @@
+package core;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.opentest4j.TestAbortedException;
+import utils.Helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static utils.Constants.FAILURE_ARTIFACTS_DIR;
+
+/**
+ * FailureArtifacts keeps the evidence of a failing test: a screenshot, the page source, the browser console
+ * log and the failure itself. Only the raw data is pulled from the driver on the test thread (the screenshot
+ * stays base64, as the driver sent it), so the session is released as soon as possible. Decoding, gzip and
+ * disk writes happen on a small background executor with a bounded queue; when the queue is full the capture
+ * is dropped and logged rather than blocking the suite. Artifacts land in target/failure-artifacts, one
+ * folder per failure, and pending writes are flushed when the fork exits.
+ */
+public class FailureArtifacts extends Helper implements AfterTestExecutionCallback {
+    private static final int WRITER_THREADS = 2;
+    private static final long FLUSH_TIMEOUT_SECONDS = 30;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final AtomicInteger DROPPED = new AtomicInteger();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final ThreadPoolExecutor WRITER = new ThreadPoolExecutor(WRITER_THREADS, WRITER_THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, TestSettings.ARTIFACT_QUEUE_SIZE)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "failure-artifacts-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, executor) -> logger.warn("Failure artifact queue is full, dropped capture #{}", DROPPED.incrementAndGet()));
+
+    static {
+        WRITER.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(FailureArtifacts::flush, "failure-artifacts-flush"));
+    }
+
+    /**
+     * Data pulled from the browser at the moment of failure, still unencoded
+     */
+    private record Capture(String testName, Instant capturedAt, String url, String title, String screenshotBase64,
+                           String pageSource, List<LogEntry> consoleLog, Throwable failure) {
+    }
+
+    public FailureArtifacts() {
+        super();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        // Runs before the AfterEach methods, while the session of the failing test is still on this thread
+        context.getExecutionException()
+                .filter(failure -> !(failure instanceof TestAbortedException))
+                .filter(failure -> DriverManager.hasDriver())
+                .ifPresent(failure -> capture(DriverManager.getDriver(),
+                        context.getRequiredTestClass().getSimpleName() + "." + context.getDisplayName(), failure));
+    }
+
+    /**
+     * Captures the state of the browser and queues the artifacts to be written in the background
+     * @param driver Session of the failing test
+     * @param testName Name used for the artifact folder
+     * @param failure Failure of the test
+     */
+    public static void capture(WebDriver driver, String testName, Throwable failure) {
+        if (!TestSettings.FAILURE_ARTIFACTS) {
+            return;
+        }
+        long start = System.nanoTime();
+        String url = attempt(driver::getCurrentUrl);
+        String title = attempt(driver::getTitle);
+        String screenshot = driver instanceof TakesScreenshot camera ? attempt(() -> camera.getScreenshotAs(OutputType.BASE64)) : null;
+        String pageSource = attempt(driver::getPageSource);
+        List<LogEntry> consoleLog = attempt(() -> driver.manage().logs().get(LogType.BROWSER).getAll());
+        ActionMetrics.record(FailureArtifacts.class.getSimpleName(), "artifact_capture", testName, start);
+
+        WRITER.execute(() -> write(new Capture(testName, Instant.now(), url, title, screenshot, pageSource,
+                consoleLog == null ? List.of() : consoleLog, failure)));
+    }
+
+    /**
+     * Reads one piece of browser state, ignoring drivers that do not support it or a browser that is gone
+     */
+    private static <T> T attempt(Callable<T> read) {
+        try {
+            return read.call();
+        } catch (Exception e) {
+            logger.debug("Skipping failure artifact: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void write(Capture capture) {
+        long start = System.nanoTime();
+        Path directory = Paths.get(FAILURE_ARTIFACTS_DIR, capture.testName().replaceAll("[^A-Za-z0-9._-]", "_")
+                + "-" + capture.capturedAt().toEpochMilli() + "-" + SEQUENCE.incrementAndGet());
+        try {
+            Files.createDirectories(directory);
+            if (capture.screenshotBase64() != null) {
+                Files.write(directory.resolve("screenshot.png"), Base64.getMimeDecoder().decode(capture.screenshotBase64()));
+            }
+            if (capture.pageSource() != null) {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(directory.resolve("page.html.gz")))) {
+                    out.write(capture.pageSource().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            if (!capture.consoleLog().isEmpty()) {
+                Files.writeString(directory.resolve("console.log"), capture.consoleLog().stream()
+                        .map(LogEntry::toString).collect(Collectors.joining(System.lineSeparator())));
+            }
+            StringWriter stackTrace = new StringWriter();
+            capture.failure().printStackTrace(new PrintWriter(stackTrace));
+            Files.writeString(directory.resolve("failure.txt"), "Test: " + capture.testName() + System.lineSeparator()
+                    + "Time: " + capture.capturedAt() + System.lineSeparator()
+                    + "URL: " + capture.url() + System.lineSeparator()
+                    + "Title: " + capture.title() + System.lineSeparator() + System.lineSeparator()
+                    + stackTrace);
+            logger.info("Failure artifacts of {} written to {} in {} ms", capture.testName(), directory,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.warn("Failed to write failure artifacts of {}: {}", capture.testName(), e.getMessage());
+        }
+    }
+
+    private static void flush() {
+        WRITER.shutdown();
+        try {
+            if (!WRITER.awaitTermination(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                shutdownMessage("Failure artifacts still pending after " + FLUSH_TIMEOUT_SECONDS + " s were discarded");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (DROPPED.get() > 0) {
+            shutdownMessage("Dropped " + DROPPED.get() + " failure artifact captures because the queue was full");
+        }
+    }
+}
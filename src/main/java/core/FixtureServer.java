@@ -0,0 +1,318 @@
+package core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import utils.Helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static utils.Constants.AUTOMATION_DEMO_ALERTS_URL;
+import static utils.Constants.AUTOMATION_DEMO_DATE_PICKER_URL;
+import static utils.Constants.GURU99_BASE_URL;
+
+/**
+ * FixtureServer serves recorded snapshots of the demo sites from a local HTTP server, so runs do not depend on
+ * internet latency or the sites' uptime. Each mirrored origin (https://demo.guru99.com, ...) gets its own
+ * loopback port, started on first use and kept for the fork, so root-relative links keep working; absolute
+ * links to mirrored origins in HTML, CSS and JS are rewritten to the local ports. The servers of all known origins
+ * (the Constants site URLs and the base URL of every TestData environment) start with the first URL mapped, so
+ * links to a site are rewritten even before a test opened it.
+ * Snapshots live in {@link TestSettings#FIXTURE_DIR}/&lt;host&gt;/&lt;path&gt;. In replay mode a missing snapshot is a 404;
+ * in record mode it is fetched from the real site, stored and served. Only GET and HEAD are supported.
+ * Every response can be delayed and throttled to benchmark under controlled network conditions.
+ *
+ * Usage:
+ * - mvn clean test -Dfixtures=record     (first run, online)
+ * - mvn clean test -Dfixtures=replay -DfixtureLatencyMs=50 -DfixtureBandwidthKbps=2000
+ */
+public final class FixtureServer extends Helper {
+    private static final String CONTENT_TYPE_SUFFIX = ".content-type";
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html; charset=utf-8"), Map.entry("htm", "text/html; charset=utf-8"),
+            Map.entry("css", "text/css"), Map.entry("js", "application/javascript"), Map.entry("json", "application/json"),
+            Map.entry("png", "image/png"), Map.entry("jpg", "image/jpeg"), Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"), Map.entry("svg", "image/svg+xml"), Map.entry("ico", "image/x-icon"));
+
+    private static final Map<String, HttpServer> SERVERS = new ConcurrentHashMap<>();
+    private static volatile HttpClient client;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> SERVERS.values().forEach(server -> server.stop(0)),
+                "fixture-server-shutdown"));
+        startKnownOrigins();
+    }
+
+    /**
+     * Where URLs are served from
+     */
+    public enum Mode {
+        /** Real sites */
+        OFF,
+        /** Recorded snapshots only */
+        REPLAY,
+        /** Recorded snapshots, recording the missing ones from the real sites */
+        RECORD;
+
+        static Mode fromName(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private FixtureServer() {
+        super();
+    }
+
+    /**
+     * Maps a URL of a mirrored site to the local server, starting the server for its origin on first use
+     * @param url Absolute URL of a page or resource
+     * @return Local URL serving the snapshot, or the URL itself if it is not http(s)
+     */
+    public static String localUrl(String url) {
+        URI uri = URI.create(url);
+        if (uri.getScheme() == null || !uri.getScheme().startsWith("http") || uri.getRawAuthority() == null) {
+            return url;
+        }
+        HttpServer server = SERVERS.computeIfAbsent(origin(uri), FixtureServer::start);
+        return localOrigin(server) + (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "")
+                + (uri.getRawFragment() != null ? "#" + uri.getRawFragment() : "");
+    }
+
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    /**
+     * Starts the servers of the origins the tests are known to open. Runs once, when the first URL is mapped.
+     */
+    private static void startKnownOrigins() {
+        List<String> urls = new ArrayList<>(List.of(GURU99_BASE_URL, AUTOMATION_DEMO_ALERTS_URL, AUTOMATION_DEMO_DATE_PICKER_URL));
+        for (String environment : TestSettings.TEST_DATA.keys()) {
+            if (TestSettings.TEST_DATA.has(environment, "base_url")) {
+                urls.add(TestSettings.TEST_DATA.getString(environment, "base_url"));
+            }
+        }
+        for (String url : urls) {
+            SERVERS.computeIfAbsent(origin(URI.create(url)), FixtureServer::start);
+        }
+    }
+
+    private static String localOrigin(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer start(String origin) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", exchange -> handle(origin, exchange));
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            logger.info("Serving {} snapshots of {} at {} (latency {} ms, bandwidth {} kbit/s)", TestSettings.FIXTURE_MODE,
+                    origin, localOrigin(server), TestSettings.FIXTURE_LATENCY_MS,
+                    TestSettings.FIXTURE_BANDWIDTH_KBPS > 0 ? TestSettings.FIXTURE_BANDWIDTH_KBPS : "unlimited");
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start fixture server for " + origin, e);
+        }
+    }
+
+    private static void handle(String origin, HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String path = exchange.getRequestURI().getRawPath();
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            Path file;
+            try {
+                file = snapshotPath(origin, exchange.getRequestURI());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Rejected request to {}: {}", origin, e.getMessage());
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            if (!Files.isRegularFile(file)) {
+                int status = TestSettings.FIXTURE_MODE == Mode.RECORD ? recordOrBadGateway(origin, exchange.getRequestURI(), file) : 404;
+                if (status != 200) {
+                    logger.warn("No snapshot of {}{} ({})", origin, exchange.getRequestURI(), status);
+                    exchange.sendResponseHeaders(status, -1);
+                    return;
+                }
+            }
+
+            String contentType = contentType(file);
+            byte[] body = Files.readAllBytes(file);
+            if (isText(contentType)) {
+                body = rewriteOrigins(new String(body, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            }
+            if (TestSettings.FIXTURE_LATENCY_MS > 0) {
+                Thread.sleep(TestSettings.FIXTURE_LATENCY_MS);
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            boolean head = method.equals("HEAD");
+            exchange.sendResponseHeaders(200, head ? -1 : body.length);
+            if (!head) {
+                write(exchange.getResponseBody(), body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ActionMetrics.record(FixtureServer.class.getSimpleName(), "serve", resourceType(path), start);
+        }
+    }
+
+    /**
+     * Gets the metrics label of a request path: its file extension if it is a known type, html for directories
+     * and other for the rest, so serve timings do not get one series per URL
+     */
+    private static String resourceType(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        if (name.isEmpty()) {
+            return "html";
+        }
+        int dot = name.lastIndexOf('.');
+        String extension = dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return CONTENT_TYPES.containsKey(extension) ? extension : "other";
+    }
+
+    /**
+     * Writes the body, in chunks paced to the configured bandwidth if there is one
+     */
+    private static void write(OutputStream out, byte[] body) throws IOException, InterruptedException {
+        int kbps = TestSettings.FIXTURE_BANDWIDTH_KBPS;
+        if (kbps <= 0) {
+            out.write(body);
+            return;
+        }
+        long bytesPerSecond = kbps * 1000L / 8;
+        int chunk = (int) Math.max(1024, bytesPerSecond / 20);
+        for (int offset = 0; offset < body.length; offset += chunk) {
+            int length = Math.min(chunk, body.length - offset);
+            out.write(body, offset, length);
+            out.flush();
+            Thread.sleep(length * 1000L / bytesPerSecond);
+        }
+    }
+
+    /**
+     * Records a missing snapshot, answering 502 Bad Gateway when the real site cannot be reached or the
+     * snapshot cannot be stored, instead of dropping the connection
+     * @return HTTP status to answer with
+     */
+    private static int recordOrBadGateway(String origin, URI requestUri, Path file) throws InterruptedException {
+        try {
+            return record(origin, requestUri, file);
+        } catch (IOException e) {
+            logger.warn("Failed to record {}{}: {}", origin, requestUri, e.getMessage());
+            return 502;
+        }
+    }
+
+    /**
+     * Fetches a missing snapshot from the real site and stores it with its content type
+     * @return HTTP status of the real site
+     */
+    private static int record(String origin, URI requestUri, Path file) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client().send(HttpRequest.newBuilder(URI.create(origin + requestUri))
+                .header("User-Agent", "Mozilla/5.0 (fixture recorder)")
+                .timeout(Duration.ofSeconds(TestSettings.PAGE_LOAD_TIMEOUT))
+                .GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            return response.statusCode();
+        }
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.write(temp, response.body());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        response.headers().firstValue("Content-Type").ifPresent(type -> {
+            try {
+                Files.writeString(file.resolveSibling(file.getFileName() + CONTENT_TYPE_SUFFIX), type);
+            } catch (IOException e) {
+                logger.warn("Failed to store content type of {}: {}", file, e.getMessage());
+            }
+        });
+        logger.info("Recorded {}{} to {}", origin, requestUri, file);
+        return 200;
+    }
+
+    private static HttpClient client() {
+        HttpClient current = client;
+        if (current == null) {
+            synchronized (FixtureServer.class) {
+                current = client;
+                if (current == null) {
+                    current = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL)
+                            .connectTimeout(Duration.ofSeconds(10)).build();
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Maps a request to its snapshot file: directories to index.html, query strings to a hashed suffix
+     */
+    private static Path snapshotPath(String origin, URI requestUri) {
+        URI originUri = URI.create(origin);
+        String host = originUri.getHost() + (originUri.getPort() > 0 ? "_" + originUri.getPort() : "");
+        String path = requestUri.getPath() == null || requestUri.getPath().isEmpty() ? "/" : requestUri.getPath();
+        if (path.endsWith("/")) {
+            path += "index.html";
+        }
+        if (requestUri.getRawQuery() != null) {
+            path += "__" + HexFormat.of().toHexDigits(requestUri.getRawQuery().hashCode());
+        }
+        Path root = Paths.get(TestSettings.FIXTURE_DIR, host).toAbsolutePath().normalize();
+        Path file = root.resolve(path.substring(1)).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Request outside the snapshot directory: " + requestUri);
+        }
+        return file;
+    }
+
+    private static String contentType(Path file) throws IOException {
+        Path stored = file.resolveSibling(file.getFileName() + CONTENT_TYPE_SUFFIX);
+        if (Files.isRegularFile(stored)) {
+            return Files.readString(stored).trim();
+        }
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "application/octet-stream" : CONTENT_TYPES.getOrDefault(name.substring(dot + 1).toLowerCase(Locale.ROOT),
+                "application/octet-stream");
+    }
+
+    private static boolean isText(String contentType) {
+        return contentType.startsWith("text/") || contentType.contains("javascript") || contentType.contains("json");
+    }
+
+    private static String rewriteOrigins(String content) {
+        for (Map.Entry<String, HttpServer> entry : SERVERS.entrySet()) {
+            content = content.replace(entry.getKey(), localOrigin(entry.getValue()));
+        }
+        return content;
+    }
+}
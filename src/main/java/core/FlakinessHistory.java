@@ -0,0 +1,196 @@
+package core;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import utils.Helper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FlakinessHistory stores how often each test passed, passed only after a retry (flaky) or failed every
+ * attempt, in {@link TestSettings#TEST_HISTORY_DIR}/flakiness.properties. Tests are keyed by the JUnit unique ID
+ * of their method, which includes the parameter types, so overloaded methods keep separate records. It is read once per JVM to decide
+ * which tests are quarantined, and the outcomes of this fork are merged into it under a file lock when the
+ * fork exits. Counts are halved once a test has more than {@link #WINDOW} runs, so recent runs dominate and
+ * a fixed test leaves quarantine after a while.
+ */
+public final class FlakinessHistory extends Helper {
+    private static final String FLAKINESS_FILE = "flakiness.properties";
+    private static final String LOCK_FILE = "flakiness.lock";
+    /** Runs after which the counts are halved */
+    private static final int WINDOW = 50;
+    /** Runs needed before a test can be quarantined */
+    private static final int MIN_RUNS = 5;
+
+    private static final Map<String, Stats> RECORDED = new ConcurrentHashMap<>();
+    private static volatile Map<String, Stats> stored;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FlakinessHistory::mergeRecorded, "flakiness-history-merge"));
+    }
+
+    /**
+     * Outcome counts of one test
+     * @param runs Number of runs
+     * @param flaky Runs that failed at least once and then passed on a retry
+     * @param failed Runs that failed every attempt
+     */
+    public record Stats(int runs, int flaky, int failed) {
+
+        /**
+         * Gets the share of runs that only passed after a retry
+         * @return Flakiness between 0 and 1
+         */
+        public double flakiness() {
+            return runs == 0 ? 0 : (double) flaky / runs;
+        }
+
+        private Stats plus(Stats other) {
+            Stats sum = new Stats(runs + other.runs, flaky + other.flaky, failed + other.failed);
+            return sum.runs > WINDOW ? new Stats(sum.runs / 2, sum.flaky / 2, sum.failed / 2) : sum;
+        }
+    }
+
+    private FlakinessHistory() {
+        super();
+    }
+
+    /**
+     * Gets the key a test is recorded under: the unique ID of its method. Invocations of a test template (retry
+     * attempts, cross-browser or parameterized invocations) share the key of the template method.
+     * @param context Extension context of the test method or of one of its invocations
+     * @return Unique ID, e.g. [engine:junit-jupiter]/[class:com.example.MyTest]/[test-template:method()]
+     */
+    public static String testKey(ExtensionContext context) {
+        ExtensionContext test = context;
+        while (test.getParent().flatMap(ExtensionContext::getTestMethod).isPresent()) {
+            test = test.getParent().get();
+        }
+        return test.getUniqueId();
+    }
+
+    /**
+     * Records the outcome of one run of a test in this fork
+     * @param testKey Unique ID of the test method, see {@link #testKey(ExtensionContext)}
+     * @param attempts Number of attempts the run took
+     * @param passed Whether the last attempt passed
+     */
+    public static void record(String testKey, int attempts, boolean passed) {
+        Stats outcome = new Stats(1, passed && attempts > 1 ? 1 : 0, passed ? 0 : 1);
+        RECORDED.merge(testKey, outcome, (a, b) -> new Stats(a.runs + b.runs, a.flaky + b.flaky, a.failed + b.failed));
+    }
+
+    /**
+     * Gets the stored statistics of a test as they were when this JVM first read them
+     * @param testKey Unique ID of the test method, see {@link #testKey(ExtensionContext)}
+     * @return Stats, all zero if the test has no history
+     */
+    public static Stats stats(String testKey) {
+        return stored().getOrDefault(testKey, new Stats(0, 0, 0));
+    }
+
+    /**
+     * Checks whether a test is flaky enough to run in the quarantine phase
+     * @param testKey Unique ID of the test method, see {@link #testKey(ExtensionContext)}
+     * @return true if the test has enough runs and its flakiness reaches TestSettings.FLAKY_THRESHOLD
+     */
+    public static boolean isQuarantined(String testKey) {
+        Stats stats = stats(testKey);
+        return stats.runs() >= MIN_RUNS && stats.flakiness() >= TestSettings.FLAKY_THRESHOLD;
+    }
+
+    private static Map<String, Stats> stored() {
+        Map<String, Stats> history = stored;
+        if (history == null) {
+            synchronized (FlakinessHistory.class) {
+                history = stored;
+                if (history == null) {
+                    history = read(historyDirectory().resolve(FLAKINESS_FILE));
+                    stored = history;
+                }
+            }
+        }
+        return history;
+    }
+
+    private static void mergeRecorded() {
+        if (RECORDED.isEmpty()) {
+            return;
+        }
+        Path directory = historyDirectory();
+        Path file = directory.resolve(FLAKINESS_FILE);
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Map<String, Stats> history = read(file);
+                RECORDED.forEach((key, stats) -> history.merge(key, stats, Stats::plus));
+
+                Path temp = directory.resolve(FLAKINESS_FILE + "." + ProcessHandle.current().pid() + ".tmp");
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writer.write("# runs,flaky,failed per test, written by core.RetryExtension\n");
+                    for (Map.Entry<String, Stats> entry : history.entrySet()) {
+                        Stats stats = entry.getValue();
+                        writer.write(escapeKey(entry.getKey()) + "=" + stats.runs() + "," + stats.flaky() + "," + stats.failed() + "\n");
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            shutdownMessage("Failed to write flakiness history " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Stats> read(Path file) {
+        Map<String, Stats> history = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                logger.warn("Failed to read flakiness history {}: {}", file, e.getMessage());
+            }
+            for (String key : properties.stringPropertyNames()) {
+                String[] counts = properties.getProperty(key).trim().split(",");
+                try {
+                    history.put(key, new Stats(Integer.parseInt(counts[0]), Integer.parseInt(counts[1]), Integer.parseInt(counts[2])));
+                } catch (RuntimeException ignored) {
+                    // Skip corrupt entries, they are rewritten on the next merge
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Escapes the characters of a unique ID that Properties.load would treat as separators or comments
+     */
+    private static String escapeKey(String key) {
+        StringBuilder escaped = new StringBuilder(key.length() + 16);
+        for (char c : key.toCharArray()) {
+            if ("\\:= #!".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static Path historyDirectory() {
+        return Paths.get(TestSettings.TEST_HISTORY_DIR);
+    }
+}
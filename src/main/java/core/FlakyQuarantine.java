@@ -0,0 +1,41 @@
+package core;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Locale;
+
+/**
+ * FlakyQuarantine splits the suite into a blocking and a low-priority phase using {@link FlakinessHistory}.
+ * With flakyPhase=stable only tests below TestSettings.FLAKY_THRESHOLD run, with flakyPhase=quarantined only
+ * the flaky ones; the default (all) runs everything. The pom runs the stable phase as the regular test
+ * execution and the quarantined phase afterwards without failing the build.
+ */
+public class FlakyQuarantine implements ExecutionCondition {
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        String phase = TestSettings.FLAKY_PHASE.toLowerCase(Locale.ROOT);
+        if (phase.equals("all") || context.getTestMethod().isEmpty()) {
+            return ConditionEvaluationResult.enabled("Flaky phase " + phase);
+        }
+        if (context.getParent().flatMap(ExtensionContext::getTestMethod).isPresent()) {
+            // Invocations of a test template only run if the template itself was enabled
+            return ConditionEvaluationResult.enabled("Decided for the test template");
+        }
+
+        String testKey = FlakinessHistory.testKey(context);
+        boolean quarantined = FlakinessHistory.isQuarantined(testKey);
+        FlakinessHistory.Stats stats = FlakinessHistory.stats(testKey);
+        String flakiness = String.format(Locale.ROOT, "%s flaky in %d of %d runs", testKey, stats.flaky(), stats.runs());
+        if (phase.equals("quarantined")) {
+            return quarantined
+                    ? ConditionEvaluationResult.enabled("Quarantined: " + flakiness)
+                    : ConditionEvaluationResult.disabled("Not quarantined, runs in the stable phase");
+        }
+        return quarantined
+                ? ConditionEvaluationResult.disabled("Quarantined, runs in the quarantined phase: " + flakiness)
+                : ConditionEvaluationResult.enabled("Stable: " + flakiness);
+    }
+}
@@ -0,0 +1,156 @@
+package core;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import utils.Helper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static utils.Constants.REPORTS_DIR;
+
+/**
+ * LocatorProfiler measures how long the browser itself takes to evaluate each locator, without the WebDriver
+ * round trip: the locator is evaluated a few times inside the page with performance.now() around it. Every
+ * locator is sampled a limited number of times per fork, right after BasePage resolved it, so the overhead
+ * stays bounded. When the fork exits the locators are written slowest-first to target/reports/locators-<pid>.txt.
+ * Enabled with -DlocatorProfiling=true.
+ */
+public final class LocatorProfiler extends Helper {
+    /** Evaluations per sample, averaged to get past the timer resolution of performance.now() */
+    private static final int REPEATS = 5;
+    private static final int SAMPLES_PER_LOCATOR = 3;
+
+    private static final String PROFILE_SCRIPT = ScriptLocators.FUNCTIONS + "\n" + String.join("\n",
+            "var start = performance.now(), matches = 0;",
+            "for (var i = 0; i < arguments[2]; i++) { matches = locateAll(arguments[0], arguments[1]).length; }",
+            "return [(performance.now() - start) / arguments[2], matches];");
+
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LocatorProfiler::writeReport, "locator-profile-report"));
+    }
+
+    /**
+     * In-browser evaluation times of one locator
+     */
+    public static final class Stats {
+        private final String page;
+        private final String locator;
+        private int samples;
+        private double totalMillis;
+        private double maxMillis;
+        private int matches;
+
+        private Stats(String page, String locator) {
+            this.page = page;
+            this.locator = locator;
+        }
+
+        private synchronized boolean wantsSample() {
+            return samples < SAMPLES_PER_LOCATOR;
+        }
+
+        private synchronized void add(double millis, int matchCount) {
+            samples++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+            matches = matchCount;
+        }
+
+        public String page() {
+            return page;
+        }
+
+        public String locator() {
+            return locator;
+        }
+
+        public synchronized int samples() {
+            return samples;
+        }
+
+        public synchronized double averageMillis() {
+            return samples == 0 ? 0 : totalMillis / samples;
+        }
+
+        public synchronized double maxMillis() {
+            return maxMillis;
+        }
+
+        public synchronized int matches() {
+            return matches;
+        }
+    }
+
+    private LocatorProfiler() {
+        super();
+    }
+
+    /**
+     * Measures one evaluation of a locator in the page, unless it has been sampled often enough already
+     * @param driver Session on the page the locator was just resolved in
+     * @param page Page object that resolved the locator
+     * @param selector Resolved locator
+     */
+    @SuppressWarnings("unchecked")
+    static void sample(WebDriver driver, String page, By selector) {
+        By.Remotable.Parameters parameters = ScriptLocators.parameters(selector);
+        if (parameters == null || !(driver instanceof JavascriptExecutor executor)) {
+            return;
+        }
+        Stats stats = STATS.computeIfAbsent(selector.toString(), locator -> new Stats(page, locator));
+        if (!stats.wantsSample()) {
+            return;
+        }
+        try {
+            List<Object> result = (List<Object>) executor.executeScript(PROFILE_SCRIPT,
+                    parameters.using(), String.valueOf(parameters.value()), REPEATS);
+            stats.add(((Number) result.get(0)).doubleValue(), ((Number) result.get(1)).intValue());
+        } catch (RuntimeException e) {
+            logger.debug("Could not profile locator {}: {}", selector, e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the sampled locators, slowest first
+     * @return Stats ordered by average evaluation time
+     */
+    public static List<Stats> slowest() {
+        return STATS.values().stream()
+                .filter(stats -> stats.samples() > 0)
+                .sorted(Comparator.comparingDouble(Stats::averageMillis).reversed())
+                .toList();
+    }
+
+    private static void writeReport() {
+        List<Stats> slowest = slowest();
+        if (slowest.isEmpty()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "%10s %10s %8s %8s  %-24s %s%n",
+                "avg ms", "max ms", "samples", "matches", "page", "locator"));
+        for (Stats stats : slowest) {
+            report.append(String.format(Locale.ROOT, "%10.3f %10.3f %8d %8d  %-24s %s%n", stats.averageMillis(),
+                    stats.maxMillis(), stats.samples(), stats.matches(), stats.page(), stats.locator()));
+        }
+        try {
+            Path directory = Paths.get(REPORTS_DIR);
+            Files.createDirectories(directory);
+            Path file = directory.resolve("locators-" + ProcessHandle.current().pid() + ".txt");
+            Files.writeString(file, report, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            shutdownMessage("Failed to write locator profile: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package core;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Locators is the registry selector classes get their By instances from. Templates are interned by pattern
+ * and every template caches the By built for each argument list, so a parameterized selector method returns
+ * the same instance on every call instead of formatting a new one. XPath locators are rewritten to CSS
+ * selectors when the expression only uses features CSS expresses with the same meaning (descendant and child
+ * steps, attribute equality, presence, contains/starts-with on attributes and a leading position on a named
+ * element); everything else, such as text() tests, nested element predicates or last(), stays XPath.
+ *
+ * Usage:
+ * - public static final By btnNext = Locators.xpath("//a[@title='Next']");   // becomes a[title='Next']
+ * - private static final Locators.Template DAY = Locators.template("//table//a[text()='%s']");
+ *   public static By day(int day) { return DAY.with(day); }
+ */
+public final class Locators {
+    /** Argument lists cached per template before its cache is cleared */
+    private static final int MAX_CACHED_ARGUMENTS = 1024;
+
+    private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<String, By> FIXED = new ConcurrentHashMap<>();
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][\\w-]*|\\*");
+    private static final String VALUE = "(?:'([^']*)'|\"([^\"]*)\")";
+    private static final Pattern ATTRIBUTE_EQUALS = Pattern.compile("@([A-Za-z_][\\w-]*)\\s*=\\s*" + VALUE);
+    private static final Pattern ATTRIBUTE_PRESENT = Pattern.compile("@([A-Za-z_][\\w-]*)");
+    private static final Pattern ATTRIBUTE_FUNCTION = Pattern.compile("(contains|starts-with)\\(\\s*@([A-Za-z_][\\w-]*)\\s*,\\s*" + VALUE + "\\s*\\)");
+    private static final Pattern POSITION = Pattern.compile("[1-9]\\d*");
+
+    /**
+     * Parameterized locator whose By instances are built once per argument list
+     */
+    public static final class Template {
+        private final String pattern;
+        private final Map<List<Object>, By> cache = new ConcurrentHashMap<>();
+
+        private Template(String pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * Gets the locator for the given arguments, formatting the pattern with String.format on first use
+         * @param args Values for the pattern's format specifiers
+         * @return Cached By, a CSS selector if the formatted XPath can be expressed as one
+         */
+        public By with(Object... args) {
+            List<Object> key = Arrays.asList(args.clone());
+            By cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            if (cache.size() >= MAX_CACHED_ARGUMENTS) {
+                cache.clear();
+            }
+            return cache.computeIfAbsent(key, k -> fromXpath(String.format(pattern, args)));
+        }
+
+        @Override
+        public String toString() {
+            return pattern;
+        }
+    }
+
+    private Locators() {
+    }
+
+    /**
+     * Gets the interned template of an XPath pattern
+     * @param xpathPattern XPath with String.format specifiers, e.g. //td[h3[contains(text(), '%s')]]
+     * @return Template shared by every caller with the same pattern
+     */
+    public static Template template(String xpathPattern) {
+        return TEMPLATES.computeIfAbsent(xpathPattern, Template::new);
+    }
+
+    /**
+     * Gets the cached locator of a fixed XPath, as a CSS selector when it translates
+     * @param xpath XPath expression
+     * @return Cached By
+     */
+    public static By xpath(String xpath) {
+        return FIXED.computeIfAbsent(xpath, Locators::fromXpath);
+    }
+
+    private static By fromXpath(String xpath) {
+        String css = toCss(xpath);
+        return css != null ? By.cssSelector(css) : By.xpath(xpath);
+    }
+
+    /**
+     * Translates an XPath expression to a CSS selector with the same matches
+     * @param xpath XPath expression
+     * @return CSS selector, or null if the expression uses anything CSS cannot express exactly
+     */
+    static String toCss(String xpath) {
+        String expression = xpath.trim();
+        if (!expression.startsWith("//")) {
+            return null;
+        }
+        StringBuilder css = new StringBuilder();
+        int i = 0;
+        while (i < expression.length()) {
+            if (expression.startsWith("//", i)) {
+                if (!css.isEmpty()) {
+                    css.append(' ');
+                }
+                i += 2;
+            } else if (expression.charAt(i) == '/') {
+                css.append(" > ");
+                i++;
+            } else {
+                return null;
+            }
+
+            Matcher name = NAME.matcher(expression).region(i, expression.length());
+            if (!name.lookingAt()) {
+                return null;
+            }
+            String tag = name.group();
+            css.append(tag);
+            i = name.end();
+
+            boolean first = true;
+            while (i < expression.length() && expression.charAt(i) == '[') {
+                int end = closingBracket(expression, i);
+                if (end < 0) {
+                    return null;
+                }
+                String predicate = toCssPredicate(expression.substring(i + 1, end).trim(), tag, first);
+                if (predicate == null) {
+                    return null;
+                }
+                css.append(predicate);
+                first = false;
+                i = end + 1;
+            }
+        }
+        return css.toString();
+    }
+
+    private static String toCssPredicate(String predicate, String tag, boolean first) {
+        if (POSITION.matcher(predicate).matches()) {
+            // //tag[n] is the n-th tag child of its parent; later predicates filter that element
+            return first && !tag.equals("*") ? ":nth-of-type(" + predicate + ")" : null;
+        }
+        StringBuilder css = new StringBuilder();
+        for (String term : splitAnd(predicate)) {
+            Matcher matcher;
+            if ((matcher = ATTRIBUTE_EQUALS.matcher(term)).matches()) {
+                css.append('[').append(matcher.group(1)).append("='").append(cssString(value(matcher, 2))).append("']");
+            } else if ((matcher = ATTRIBUTE_FUNCTION.matcher(term)).matches()) {
+                String value = value(matcher, 3);
+                if (value.isEmpty()) {
+                    // contains(@a, '') is true for any element, [a*=''] matches nothing
+                    return null;
+                }
+                String operator = matcher.group(1).equals("contains") ? "*=" : "^=";
+                css.append('[').append(matcher.group(2)).append(operator).append('\'').append(cssString(value)).append("']");
+            } else if ((matcher = ATTRIBUTE_PRESENT.matcher(term)).matches()) {
+                css.append('[').append(matcher.group(1)).append(']');
+            } else {
+                return null;
+            }
+        }
+        return css.toString();
+    }
+
+    private static String value(Matcher matcher, int group) {
+        return matcher.group(group) != null ? matcher.group(group) : matcher.group(group + 1);
+    }
+
+    private static String cssString(String value) {
+        return value.replace("\\", "\\\\").replace("'", "\\'");
+    }
+
+    /**
+     * Splits a predicate on the 'and' operators that are outside quotes, brackets and parentheses
+     */
+    private static List<String> splitAnd(String predicate) {
+        List<String> terms = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < predicate.length(); i++) {
+            char c = predicate.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == ']') {
+                depth--;
+            } else if (depth == 0 && predicate.startsWith(" and ", i)) {
+                terms.add(predicate.substring(start, i).trim());
+                start = i + 5;
+                i += 4;
+            }
+        }
+        terms.add(predicate.substring(start).trim());
+        return terms;
+    }
+
+    private static int closingBracket(String expression, int open) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = open; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
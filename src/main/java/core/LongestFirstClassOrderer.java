@@ -0,0 +1,25 @@
+package core;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * LongestFirstClassOrderer starts the test classes that took longest in previous runs first, so the
+ * long tail does not start last and the fork finishes sooner. Classes without history go first because
+ * their duration is unknown. Configured as junit.jupiter.testclass.order.default.
+ */
+public class LongestFirstClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        TestHistory history = TestHistory.get();
+        context.getClassDescriptors().sort(Comparator
+                .comparingLong((ClassDescriptor descriptor) ->
+                        history.classDuration(descriptor.getTestClass().getName()).orElse(Long.MAX_VALUE))
+                .reversed()
+                .thenComparing(descriptor -> descriptor.getTestClass().getName()));
+    }
+}
@@ -0,0 +1,59 @@
+package core;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * NavigationState remembers, per browser session, which URL was last loaded through a page object
+ * and whether anything has interacted with that page since. A session that is still on that URL
+ * with a clean page does not need to be navigated again.
+ */
+final class NavigationState {
+    private static final Map<WebDriver, NavigationState> STATES = new ConcurrentHashMap<>();
+
+    private volatile String loadedUrl;
+    private volatile boolean dirty;
+
+    private NavigationState() {
+    }
+
+    static NavigationState of(WebDriver driver) {
+        return STATES.computeIfAbsent(driver, d -> new NavigationState());
+    }
+
+    /**
+     * Forgets the state of a session that was reset or quit
+     * @param driver Browser session
+     */
+    static void forget(WebDriver driver) {
+        STATES.remove(driver);
+    }
+
+    void navigated(String url) {
+        this.loadedUrl = url;
+        this.dirty = false;
+    }
+
+    void markDirty() {
+        this.dirty = true;
+    }
+
+    /**
+     * Checks whether the given URL was loaded last and has not been interacted with since
+     * @param url Target URL
+     * @return true if navigating to the URL again would load the same clean page
+     */
+    boolean isCleanAt(String url) {
+        return !this.dirty && this.loadedUrl != null && sameUrl(this.loadedUrl, url);
+    }
+
+    static boolean sameUrl(String first, String second) {
+        return stripTrailingSlash(first).equals(stripTrailingSlash(second));
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
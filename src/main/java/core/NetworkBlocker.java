@@ -0,0 +1,185 @@
+package core;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import utils.Helper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static utils.Constants.REPORTS_DIR;
+
+/**
+ * NetworkBlocker drops requests that are irrelevant to the assertions (ads, analytics, fonts, images)
+ * in Chromium sessions through the DevTools protocol. URL patterns are blocked with Network.setBlockedURLs;
+ * resource types are paused with Fetch.enable and failed, so only blocked requests ever leave the browser's
+ * network stack. Blocked and loaded requests are counted per fork and written to target/reports at exit.
+ */
+public class NetworkBlocker extends Helper {
+    private static final Map<String, LongAdder> BLOCKED_BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> LOADED_BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> LOADED_BYTES_BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<String, String> REQUEST_TYPES = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, DevTools> SESSIONS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(NetworkBlocker::writeReport, "network-blocking-report"));
+    }
+
+    private NetworkBlocker() {
+        super();
+    }
+
+    /**
+     * Applies the blocking profile plus extra URL patterns to a new session
+     * @param driver Newly created session
+     * @param profile Blocking profile
+     * @param extraUrlPatterns Additional URL patterns to block
+     */
+    public static void apply(WebDriver driver, BlockingProfile profile, List<String> extraUrlPatterns) {
+        List<String> urlPatterns = new ArrayList<>(profile.getUrlPatterns());
+        urlPatterns.addAll(extraUrlPatterns);
+        List<String> resourceTypes = profile.getResourceTypes();
+        if (urlPatterns.isEmpty() && resourceTypes.isEmpty()) {
+            return;
+        }
+        if (!(driver instanceof ChromiumDriver chromiumDriver)) {
+            logger.warn("Network blocking profile {} is only supported for local Chrome/Edge sessions, skipping", profile);
+            return;
+        }
+
+        try {
+            DevTools devTools = chromiumDriver.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(event("Network.requestWillBeSent"), params ->
+                    REQUEST_TYPES.put(String.valueOf(params.get("requestId")), String.valueOf(params.get("type"))));
+            devTools.addListener(event("Network.loadingFinished"), NetworkBlocker::recordLoaded);
+            devTools.addListener(event("Network.loadingFailed"), NetworkBlocker::recordFailed);
+            devTools.send(new Command<Void>("Network.enable", Map.of()));
+
+            if (!urlPatterns.isEmpty()) {
+                devTools.send(new Command<Void>("Network.setBlockedURLs", Map.of("urls", urlPatterns)));
+            }
+            if (!resourceTypes.isEmpty()) {
+                List<Map<String, Object>> patterns = new ArrayList<>();
+                for (String resourceType : resourceTypes) {
+                    patterns.add(Map.of("urlPattern", "*", "resourceType", resourceType, "requestStage", "Request"));
+                }
+                devTools.addListener(event("Fetch.requestPaused"), params -> {
+                    increment(BLOCKED_BY_TYPE, String.valueOf(params.get("resourceType")), 1);
+                    devTools.send(new Command<Void>("Fetch.failRequest",
+                            Map.of("requestId", params.get("requestId"), "errorReason", "BlockedByClient")));
+                });
+                devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", patterns)));
+            }
+            SESSIONS.put(driver, devTools);
+            logger.debug("Applied network blocking profile {} ({} URL patterns, resource types {})",
+                    profile, urlPatterns.size(), resourceTypes);
+        } catch (Exception e) {
+            logger.warn("Failed to apply network blocking profile {}: {}", profile, e.getMessage());
+        }
+    }
+
+    /**
+     * Detaches the DevTools listeners of a session that is being quit
+     * @param driver Session being quit
+     */
+    public static void detach(WebDriver driver) {
+        DevTools devTools = SESSIONS.remove(driver);
+        if (devTools != null) {
+            try {
+                devTools.close();
+            } catch (Exception e) {
+                logger.debug("Error while closing DevTools session: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static void recordLoaded(Map<String, Object> params) {
+        String type = REQUEST_TYPES.getOrDefault(String.valueOf(params.get("requestId")), "Other");
+        REQUEST_TYPES.remove(String.valueOf(params.get("requestId")));
+        increment(LOADED_BY_TYPE, type, 1);
+        if (params.get("encodedDataLength") instanceof Number bytes) {
+            increment(LOADED_BYTES_BY_TYPE, type, bytes.longValue());
+        }
+    }
+
+    private static void recordFailed(Map<String, Object> params) {
+        REQUEST_TYPES.remove(String.valueOf(params.get("requestId")));
+        // "inspector" marks Network.setBlockedURLs; requests failed from Fetch.requestPaused are counted there
+        if ("inspector".equals(params.get("blockedReason"))) {
+            increment(BLOCKED_BY_TYPE, String.valueOf(params.get("type")), 1);
+        }
+    }
+
+    private static void increment(Map<String, LongAdder> counters, String key, long amount) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Builds the per-fork blocking report. Bytes saved per resource type are estimated from the
+     * average size of requests of the same type that were loaded in this fork.
+     * @return Report text
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-12s %10s %10s %14s %18s%n", "type", "blocked", "loaded", "loaded bytes", "est. bytes saved"));
+        Set<String> types = new TreeSet<>(BLOCKED_BY_TYPE.keySet());
+        types.addAll(LOADED_BY_TYPE.keySet());
+
+        long totalBlocked = 0;
+        long totalSaved = 0;
+        for (String type : types) {
+            long blocked = sum(BLOCKED_BY_TYPE, type);
+            long loaded = sum(LOADED_BY_TYPE, type);
+            long loadedBytes = sum(LOADED_BYTES_BY_TYPE, type);
+            String saved = "n/a";
+            if (blocked > 0 && loaded > 0) {
+                long estimate = blocked * (loadedBytes / loaded);
+                totalSaved += estimate;
+                saved = String.valueOf(estimate);
+            }
+            totalBlocked += blocked;
+            report.append(String.format("%-12s %10d %10d %14d %18s%n", type, blocked, loaded, loadedBytes, saved));
+        }
+        report.append(String.format("Total requests blocked: %d, estimated bytes saved: %d%n", totalBlocked, totalSaved));
+        return report.toString();
+    }
+
+    private static long sum(Map<String, LongAdder> counters, String key) {
+        LongAdder counter = counters.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    private static void writeReport() {
+        if (BLOCKED_BY_TYPE.isEmpty() && LOADED_BY_TYPE.isEmpty()) {
+            return;
+        }
+        try {
+            Path reportFile = Paths.get(REPORTS_DIR, "network-blocking-" + ProcessHandle.current().pid() + ".txt");
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, "Blocking profile: " + TestSettings.BLOCKING_PROFILE + System.lineSeparator() + report(),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            shutdownMessage("Failed to write network blocking report: " + e.getMessage());
+        }
+    }
+}
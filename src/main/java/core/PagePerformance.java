@@ -0,0 +1,303 @@
+package core;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import utils.Helper;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.ToDoubleFunction;
+
+import static utils.Constants.REPORTS_DIR;
+
+/**
+ * PagePerformance reads the browser's own timings of a page right after BasePage loaded it: Navigation Timing,
+ * the number and transfer size of resources, and the paint metrics First Contentful Paint, Largest Contentful
+ * Paint and Cumulative Layout Shift. Everything comes from the performance timeline in one script call, so no
+ * extra round trips or waits are added. Metrics the browser does not support (LCP and CLS outside Chromium,
+ * load times under an eager page load strategy) are left out rather than reported as 0.
+ * Only loads through {@link BasePage#openSite(String)} are measured: pages reached by clicking a link or
+ * submitting a form are not, so their budgets are not checked either.
+ * When a fork exits it writes its raw samples to target/reports/performance/samples-PID.jsonl and
+ * recomputes pages.json, the percentiles per URL over the samples of every fork. target is cleaned per run
+ * (mvn clean test), otherwise the samples of earlier runs are included. Disabled with -DpagePerformance=false.
+ */
+public final class PagePerformance extends Helper {
+    private static final double[] QUANTILES = {0.50, 0.75, 0.95};
+
+    private static final String CAPTURE_SCRIPT = String.join("\n",
+            "function buffered(type) {",
+            "  if (!window.PerformanceObserver || !(PerformanceObserver.supportedEntryTypes || []).includes(type)) { return null; }",
+            "  var observer = new PerformanceObserver(function () {});",
+            "  observer.observe({type: type, buffered: true});",
+            "  var entries = observer.takeRecords();",
+            "  observer.disconnect();",
+            "  return entries;",
+            "}",
+            "var result = {};",
+            "var nav = performance.getEntriesByType('navigation')[0];",
+            "var resources = performance.getEntriesByType('resource');",
+            "if (nav) {",
+            "  result.ttfb = nav.responseStart;",
+            "  result.domContentLoaded = nav.domContentLoadedEventEnd || null;",
+            "  result.load = nav.loadEventEnd || null;",
+            "}",
+            "result.resourceCount = resources.length;",
+            "result.transferBytes = resources.reduce(function (sum, r) { return sum + (r.transferSize || 0); }, nav ? nav.transferSize || 0 : 0);",
+            "var fcp = performance.getEntriesByName('first-contentful-paint')[0];",
+            "result.fcp = fcp ? fcp.startTime : null;",
+            "var lcp = buffered('largest-contentful-paint');",
+            "result.lcp = lcp && lcp.length ? lcp[lcp.length - 1].startTime : null;",
+            "var shifts = buffered('layout-shift');",
+            "if (shifts) {",
+            "  var cls = 0, session = 0, first = 0, last = 0;",
+            "  shifts.filter(function (s) { return !s.hadRecentInput; }).forEach(function (s) {",
+            "    if (session && s.startTime - last < 1000 && s.startTime - first < 5000) { session += s.value; }",
+            "    else { session = s.value; first = s.startTime; }",
+            "    last = s.startTime;",
+            "    cls = Math.max(cls, session);",
+            "  });",
+            "  result.cls = cls;",
+            "}",
+            "return result;");
+
+    private static final String SAMPLES_PREFIX = "samples-";
+    private static final String SAMPLES_SUFFIX = ".jsonl";
+    private static final String REPORT_FILE = "pages.json";
+    private static final String LOCK_FILE = "performance.lock";
+
+    private static final Queue<Sample> SAMPLES = new ConcurrentLinkedQueue<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PagePerformance::writeReport, "page-performance-report"));
+    }
+
+    /**
+     * Metric read from the performance timeline, with the budget limit that applies to it
+     */
+    public enum Metric {
+        TTFB("ttfb", "ttfb_ms", PerformanceBudget::ttfbMs),
+        DOM_CONTENT_LOADED("domContentLoaded", "dom_content_loaded_ms", PerformanceBudget::domContentLoadedMs),
+        LOAD("load", "load_ms", PerformanceBudget::loadMs),
+        FCP("fcp", "fcp_ms", PerformanceBudget::fcpMs),
+        LCP("lcp", "lcp_ms", PerformanceBudget::lcpMs),
+        CLS("cls", "cls", PerformanceBudget::cls),
+        RESOURCE_COUNT("resourceCount", "resource_count", PerformanceBudget::resourceCount),
+        TRANSFER_BYTES("transferBytes", "transfer_bytes", PerformanceBudget::transferBytes);
+
+        private final String scriptKey;
+        private final String reportName;
+        private final ToDoubleFunction<PerformanceBudget> limit;
+
+        Metric(String scriptKey, String reportName, ToDoubleFunction<PerformanceBudget> limit) {
+            this.scriptKey = scriptKey;
+            this.reportName = reportName;
+            this.limit = limit;
+        }
+
+        public String reportName() {
+            return reportName;
+        }
+    }
+
+    /**
+     * Timings of one page load
+     * @param url URL the samples are aggregated under
+     * @param metrics Metrics the browser reported
+     * @param violated Whether the load exceeded the page object's budget
+     */
+    record Sample(String url, Map<Metric, Double> metrics, boolean violated) {
+
+        private JSONObject toJson() {
+            JSONObject values = new JSONObject();
+            metrics.forEach((metric, value) -> values.put(metric.reportName(), value));
+            return new JSONObject().put("url", url).put("violated", violated).put("metrics", values);
+        }
+
+        private static Sample fromJson(JSONObject json) {
+            JSONObject values = json.getJSONObject("metrics");
+            Map<Metric, Double> metrics = new EnumMap<>(Metric.class);
+            for (Metric metric : Metric.values()) {
+                if (values.has(metric.reportName())) {
+                    metrics.put(metric, values.getDouble(metric.reportName()));
+                }
+            }
+            return new Sample(json.getString("url"), metrics, json.optBoolean("violated"));
+        }
+    }
+
+    private PagePerformance() {
+        super();
+    }
+
+    /**
+     * Reads the timings of the page the session just loaded and adds them to the URL's samples
+     * @param driver Session on the loaded page
+     * @param page Page object class that loaded it, whose {@link PerformanceBudget} applies
+     * @param url URL the page object opened, used to aggregate the samples
+     * @return Exceeded budget limits, e.g. "lcp_ms 3120.0 > 2500.0"; empty if none or no budget is declared
+     */
+    public static List<String> capture(WebDriver driver, Class<?> page, String url) {
+        Map<Metric, Double> sample = read(driver);
+        if (sample.isEmpty()) {
+            return List.of();
+        }
+        PerformanceBudget budget = page.getAnnotation(PerformanceBudget.class);
+        List<String> violations = budget == null ? List.of() : violations(budget, sample);
+        SAMPLES.add(new Sample(key(url), sample, !violations.isEmpty()));
+        logger.debug("Performance of {}: {}", url, sample);
+        return violations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Metric, Double> read(WebDriver driver) {
+        Map<Metric, Double> sample = new EnumMap<>(Metric.class);
+        if (!(driver instanceof JavascriptExecutor executor)) {
+            return sample;
+        }
+        try {
+            Map<String, Object> result = (Map<String, Object>) executor.executeScript(CAPTURE_SCRIPT);
+            for (Metric metric : Metric.values()) {
+                if (result.get(metric.scriptKey) instanceof Number value) {
+                    sample.put(metric, value.doubleValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not read page performance: {}", e.getMessage());
+        }
+        return sample;
+    }
+
+    /**
+     * Compares the metrics of one page load with a budget
+     * @param budget Budget of the page object
+     * @param sample Metrics of the load
+     * @return Exceeded limits, e.g. "lcp_ms 3120.000 > 2500.000"; limits below 0 are not checked
+     */
+    static List<String> violations(PerformanceBudget budget, Map<Metric, Double> sample) {
+        List<String> violations = new ArrayList<>();
+        sample.forEach((metric, value) -> {
+            double limit = metric.limit.applyAsDouble(budget);
+            if (limit >= 0 && value > limit) {
+                violations.add(String.format(Locale.ROOT, "%s %.3f > %.3f", metric.reportName(), value, limit));
+            }
+        });
+        return violations;
+    }
+
+    /**
+     * Aggregates loads of the same page with different fragments together
+     */
+    private static String key(String url) {
+        int fragment = url.indexOf('#');
+        return fragment < 0 ? url : url.substring(0, fragment);
+    }
+
+    /**
+     * Nearest-rank percentile of sorted samples
+     * @param sorted Samples in ascending order, not empty
+     * @param quantile Quantile between 0 and 1
+     * @return The smallest sample that at least the quantile's share of the samples is less than or equal to
+     */
+    static double percentile(double[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Aggregates the raw samples written by every fork of the run into percentiles per URL. Percentiles of
+     * separate forks cannot be combined, so each fork only writes its samples and the report is computed from all
+     * of them together.
+     * @param directory Directory holding the samples-PID.jsonl files
+     * @return JSON document
+     * @throws IOException if a samples file cannot be read
+     */
+    static JSONObject aggregate(Path directory) throws IOException {
+        Map<String, List<Sample>> byUrl = new TreeMap<>();
+        int forks = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SAMPLES_PREFIX + "*" + SAMPLES_SUFFIX)) {
+            for (Path file : files) {
+                forks++;
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        Sample sample = Sample.fromJson(new JSONObject(line));
+                        byUrl.computeIfAbsent(sample.url(), url -> new ArrayList<>()).add(sample);
+                    }
+                }
+            }
+        }
+
+        JSONArray pages = new JSONArray();
+        byUrl.forEach((url, samples) -> pages.put(toJson(url, samples)));
+        return new JSONObject()
+                .put("forks", forks)
+                .put("quantiles", new JSONArray(Arrays.stream(QUANTILES).boxed().toList()))
+                .put("pages", pages);
+    }
+
+    private static JSONObject toJson(String url, List<Sample> samples) {
+        JSONObject metrics = new JSONObject();
+        for (Metric metric : Metric.values()) {
+            double[] sorted = samples.stream()
+                    .map(sample -> sample.metrics().get(metric))
+                    .filter(Objects::nonNull)
+                    .mapToDouble(Double::doubleValue)
+                    .sorted()
+                    .toArray();
+            if (sorted.length == 0) {
+                continue;
+            }
+            JSONObject percentiles = new JSONObject().put("count", sorted.length);
+            for (double quantile : QUANTILES) {
+                percentiles.put("p" + Math.round(quantile * 100), percentile(sorted, quantile));
+            }
+            metrics.put(metric.reportName(), percentiles.put("max", sorted[sorted.length - 1]));
+        }
+        return new JSONObject()
+                .put("url", url)
+                .put("loads", samples.size())
+                .put("budget_violations", samples.stream().filter(Sample::violated).count())
+                .put("metrics", metrics);
+    }
+
+    /**
+     * Writes the samples of this fork, then recomputes the report from the samples of every fork under a lock,
+     * so the fork that exits last leaves the report of the whole run
+     */
+    private static void writeReport() {
+        if (SAMPLES.isEmpty()) {
+            return;
+        }
+        Path directory = Paths.get(REPORTS_DIR, "performance");
+        try {
+            Files.createDirectories(directory);
+            List<String> lines = SAMPLES.stream().map(sample -> sample.toJson().toString()).toList();
+            Files.write(directory.resolve(SAMPLES_PREFIX + ProcessHandle.current().pid() + SAMPLES_SUFFIX), lines, StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Files.writeString(directory.resolve(REPORT_FILE), aggregate(directory).toString(2), StandardCharsets.UTF_8);
+            }
+        } catch (IOException | RuntimeException e) {
+            shutdownMessage("Failed to write page performance report: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package core;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Performance budget of a page object, checked by {@link PagePerformance} after every page load through
+ * {@link BasePage#openSite(String)}; pages reached by clicks or form submits are not measured. A load over any
+ * limit fails the test with every exceeded metric listed.
+ * Limits left at -1 are not checked; page objects without the annotation are measured but never fail.
+ *
+ * Usage:
+ * - @PerformanceBudget(lcpMs = 2500, cls = 0.1) public class CheckoutPage extends BasePage { ... }
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface PerformanceBudget {
+
+    /**
+     * @return Maximum time to first byte of the document in milliseconds
+     */
+    double ttfbMs() default -1;
+
+    /**
+     * @return Maximum time until DOMContentLoaded finished in milliseconds
+     */
+    double domContentLoadedMs() default -1;
+
+    /**
+     * @return Maximum time until the load event finished in milliseconds
+     */
+    double loadMs() default -1;
+
+    /**
+     * @return Maximum First Contentful Paint in milliseconds
+     */
+    double fcpMs() default -1;
+
+    /**
+     * @return Maximum Largest Contentful Paint in milliseconds
+     */
+    double lcpMs() default -1;
+
+    /**
+     * @return Maximum Cumulative Layout Shift score
+     */
+    double cls() default -1;
+
+    /**
+     * @return Maximum number of resources (scripts, styles, images, XHR, ...) loaded by the page
+     */
+    double resourceCount() default -1;
+
+    /**
+     * @return Maximum bytes transferred for the document and its resources
+     */
+    double transferBytes() default -1;
+}
@@ -0,0 +1,166 @@
+package core;
+
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.LifecycleMethodExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.TestAbortedException;
+import utils.Helper;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * RetryExtension reruns a failed {@link RetryingTest} up to {@link TestSettings#RETRY_COUNT} times within the same
+ * JVM, so a single timeout does not cost a rerun of the whole build. Every attempt is its own invocation of the
+ * test template and goes through the complete JUnit lifecycle: the BeforeEach/AfterEach methods, the callbacks and
+ * parameter resolvers of every extension, and an entry of its own in the reports. The next attempt is provided
+ * only after the previous one has finished and failed. Failures that are retried are reported as aborted, so only
+ * the last attempt can fail the build.
+ * <p>
+ * When an attempt fails, its failure artifacts are captured here ({@link FailureArtifacts} skips aborted tests) and
+ * its session is taken out of the session pool, so the AfterEach methods quit it and the next attempt leases a
+ * fresh but already warm session. Every test is recorded in {@link FlakinessHistory} under the unique ID of its
+ * method; a test that only passes on a retry counts as flaky.
+ */
+public class RetryExtension extends Helper implements TestTemplateInvocationContextProvider {
+
+    public RetryExtension() {
+        super();
+    }
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        Optional<Method> method = context.getTestMethod().filter(test -> AnnotationSupport.isAnnotated(test, RetryingTest.class));
+        if (method.isPresent() && AnnotationSupport.isAnnotated(method.get(), CrossBrowser.class)) {
+            throw new ExtensionConfigurationException("@RetryingTest and @CrossBrowser cannot be combined on " + method.get().getName());
+        }
+        return method.isPresent();
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        Attempt first = new Attempt(context.getDisplayName(), FlakinessHistory.testKey(context), 1,
+                1 + Math.max(0, TestSettings.RETRY_COUNT));
+        // Each attempt is created only after the previous one has finished, see Attempt#next
+        return Stream.iterate(first, Objects::nonNull, Attempt::next).map(TestTemplateInvocationContext.class::cast);
+    }
+
+    /**
+     * One attempt of a retried test; turns a retryable failure into an abort and reports when it has finished
+     */
+    private static final class Attempt implements TestTemplateInvocationContext, TestExecutionExceptionHandler,
+            LifecycleMethodExecutionExceptionHandler, TestWatcher {
+        private final String testName;
+        private final String testKey;
+        private final int number;
+        private final int maxAttempts;
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile boolean retry;
+
+        private Attempt(String testName, String testKey, int number, int maxAttempts) {
+            this.testName = testName;
+            this.testKey = testKey;
+            this.number = number;
+            this.maxAttempts = maxAttempts;
+        }
+
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            return number == 1 ? testName : testName + " [attempt " + number + "]";
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return List.of(this);
+        }
+
+        @Override
+        public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+            throw retryOrRethrow(context, throwable);
+        }
+
+        @Override
+        public void handleBeforeEachMethodExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+            // A session that could not be started is retried like a failed test
+            throw retryOrRethrow(context, throwable);
+        }
+
+        private Throwable retryOrRethrow(ExtensionContext context, Throwable failure) {
+            if (failure instanceof TestAbortedException || number >= maxAttempts) {
+                return failure;
+            }
+            logger.warn("{} failed on attempt {}, retrying on a fresh session: {}", testName, number, failure.getMessage());
+            if (DriverManager.hasDriver()) {
+                FailureArtifacts.capture(DriverManager.getDriver(),
+                        context.getRequiredTestClass().getSimpleName() + "." + context.getDisplayName(), failure);
+                // The AfterEach methods quit the failed session instead of handing it to another test
+                DriverPool.discard(DriverManager.getDriver());
+            }
+            retry = true;
+            return new TestAbortedException("Attempt " + number + " of " + maxAttempts + " failed and is retried: "
+                    + failure.getMessage(), failure);
+        }
+
+        @Override
+        public void testSuccessful(ExtensionContext context) {
+            if (number > 1) {
+                logger.warn("{} passed on attempt {}, marked as flaky", testName, number);
+            }
+            FlakinessHistory.record(testKey, number, true);
+            finished.countDown();
+        }
+
+        @Override
+        public void testFailed(ExtensionContext context, Throwable cause) {
+            FlakinessHistory.record(testKey, number, false);
+            finished.countDown();
+        }
+
+        @Override
+        public void testAborted(ExtensionContext context, Throwable cause) {
+            finished.countDown();
+        }
+
+        @Override
+        public void testDisabled(ExtensionContext context, Optional<String> reason) {
+            finished.countDown();
+        }
+
+        /**
+         * Waits until this attempt has finished
+         * @return The next attempt if this one failed and is retried, otherwise null
+         */
+        private Attempt next() {
+            try {
+                // Blocks the template's worker like a test waiting for a browser slot; the pool adds a spare worker
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        finished.await();
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return finished.getCount() == 0;
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            return retry ? new Attempt(testName, testKey, number + 1, maxAttempts) : null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package core;
+
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a {@link BaseTest} test whose failures are retried on a fresh session, see {@link RetryExtension}.
+ * Use it instead of @Test; every attempt is a separate invocation of the test. With TestSettings.RETRY_COUNT
+ * at 0, the default outside the ci profile, the test runs exactly once. It cannot be combined with @CrossBrowser.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@TestTemplate
+@ExtendWith(RetryExtension.class)
+public @interface RetryingTest {
+}
@@ -0,0 +1,64 @@
+package core;
+
+import org.openqa.selenium.By;
+
+/**
+ * Shared JavaScript helpers that locate elements and check visibility inside the page,
+ * used by the in-browser waits and batched reads. Locators are passed to scripts as the
+ * W3C strategy/value pair Selenium itself would send.
+ */
+final class ScriptLocators {
+
+    /** Declares locate(using, value), locateAll(using, value) and visible(el) */
+    static final String FUNCTIONS = String.join("\n",
+            "function locateAll(using, value) {",
+            "  if (using === 'css selector') { return Array.prototype.slice.call(document.querySelectorAll(value)); }",
+            "  if (using === 'xpath') {",
+            "    var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);",
+            "    var nodes = [];",
+            "    for (var i = 0; i < snapshot.snapshotLength; i++) { nodes.push(snapshot.snapshotItem(i)); }",
+            "    return nodes;",
+            "  }",
+            "  if (using === 'tag name') { return Array.prototype.slice.call(document.getElementsByTagName(value)); }",
+            "  if (using === 'link text' || using === 'partial link text') {",
+            "    return Array.prototype.filter.call(document.getElementsByTagName('a'), function (link) {",
+            "      var text = link.innerText.trim();",
+            "      return using === 'link text' ? text === value : text.indexOf(value) >= 0;",
+            "    });",
+            "  }",
+            "  throw new Error('Unsupported locator strategy: ' + using);",
+            "}",
+            "function locate(using, value) {",
+            "  if (using === 'css selector') { return document.querySelector(value); }",
+            "  if (using === 'xpath') {",
+            "    return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  }",
+            "  return locateAll(using, value)[0] || null;",
+            "}",
+            "function visible(el) {",
+            "  if (!el || !el.isConnected) { return false; }",
+            "  var style = window.getComputedStyle(el);",
+            "  if (style.visibility === 'hidden' || style.display === 'none' || parseFloat(style.opacity) === 0) { return false; }",
+            "  var rects = el.getClientRects();",
+            "  for (var i = 0; i < rects.length; i++) { if (rects[i].width > 0 || rects[i].height > 0) { return true; } }",
+            "  return false;",
+            "}");
+
+    /** Error message thrown by the scripts for strategies they cannot evaluate */
+    static final String UNSUPPORTED_STRATEGY = "Unsupported locator strategy";
+
+    private ScriptLocators() {
+    }
+
+    /**
+     * Converts a locator to the strategy/value pair used by the scripts
+     * @param selector Element locator
+     * @return Strategy and value, or null if the locator cannot be evaluated in the page
+     */
+    static By.Remotable.Parameters parameters(By selector) {
+        if (selector instanceof By.Remotable remotable) {
+            return remotable.getRemoteParameters();
+        }
+        return null;
+    }
+}
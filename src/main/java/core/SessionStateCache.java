@@ -0,0 +1,171 @@
+package core;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import utils.Helper;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SessionStateCache keeps the authenticated state (cookies, localStorage and sessionStorage) of a login per
+ * credentials and environment, so only the first test of a fork logs in through the UI and the others start
+ * from a copy of that state. Entries expire after {@link TestSettings#SESSION_STATE_TTL} seconds or when the
+ * first of their cookies expires, whichever is earlier. The cache lives in memory only; credentials are
+ * hashed into the key and nothing is written to disk.
+ */
+public final class SessionStateCache extends Helper {
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "return [Object.assign({}, window.localStorage), Object.assign({}, window.sessionStorage)];";
+    private static final String RESTORE_STORAGE_SCRIPT =
+            "window.localStorage.clear(); window.sessionStorage.clear();"
+            + "Object.entries(arguments[0]).forEach(([k, v]) => window.localStorage.setItem(k, v));"
+            + "Object.entries(arguments[1]).forEach(([k, v]) => window.sessionStorage.setItem(k, v));";
+
+    private static final Map<String, SessionState> STATES = new ConcurrentHashMap<>();
+    private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * Authenticated state of one login
+     * @param origin Origin the cookies and storage belong to, e.g. https://demo.applitools.com
+     * @param landingUrl URL the login ended on
+     * @param cookies Cookies of the origin
+     * @param localStorage localStorage entries
+     * @param sessionStorage sessionStorage entries
+     * @param expiresAt When the state must no longer be used
+     */
+    public record SessionState(String origin, String landingUrl, Set<Cookie> cookies, Map<String, String> localStorage,
+                               Map<String, String> sessionStorage, Instant expiresAt) {
+    }
+
+    private SessionStateCache() {
+        super();
+    }
+
+    /**
+     * Builds a cache key from the environment and the credentials without keeping the credentials themselves
+     * @param parts Environment, origin, user name, password, ...
+     * @return SHA-256 hex digest of the parts
+     */
+    public static String key(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Gets a cached state that has not expired yet
+     * @param key Cache key from {@link #key(String...)}
+     * @return SessionState, or empty if none is cached or it expired
+     */
+    public static Optional<SessionState> get(String key) {
+        SessionState state = STATES.get(key);
+        if (state != null && state.expiresAt().isBefore(Instant.now())) {
+            logger.info("Cached session state expired at {}", state.expiresAt());
+            STATES.remove(key, state);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(state);
+    }
+
+    /**
+     * Drops a cached state, e.g. after the application rejected it
+     * @param key Cache key from {@link #key(String...)}
+     */
+    public static void invalidate(String key) {
+        STATES.remove(key);
+    }
+
+    /**
+     * Gets the lock that serializes the UI logins of one key, so concurrent tests wait for the first login
+     * and then start from its state instead of all logging in
+     * @param key Cache key from {@link #key(String...)}
+     * @return Lock shared by all callers with the same key
+     */
+    public static ReentrantLock lockFor(String key) {
+        return LOCKS.computeIfAbsent(key, k -> new ReentrantLock());
+    }
+
+    /**
+     * Captures the cookies and storage of the page the session is on and caches them
+     * @param key Cache key from {@link #key(String...)}
+     * @param driver Session that just logged in
+     * @return Captured state
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionState capture(String key, WebDriver driver) {
+        String landingUrl = driver.getCurrentUrl();
+        Set<Cookie> cookies = driver.manage().getCookies();
+        List<Object> storage = (List<Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+
+        Instant expiresAt = Instant.now().plus(Duration.ofSeconds(TestSettings.SESSION_STATE_TTL));
+        for (Cookie cookie : cookies) {
+            if (cookie.getExpiry() != null && cookie.getExpiry().toInstant().isBefore(expiresAt)) {
+                expiresAt = cookie.getExpiry().toInstant();
+            }
+        }
+        SessionState state = new SessionState(originOf(landingUrl), landingUrl, Set.copyOf(cookies),
+                asStringMap(storage.get(0)), asStringMap(storage.get(1)), expiresAt);
+        STATES.put(key, state);
+        logger.info("Cached session state of {} ({} cookies, {} storage entries) until {}", state.origin(),
+                cookies.size(), state.localStorage().size() + state.sessionStorage().size(), expiresAt);
+        return state;
+    }
+
+    /**
+     * Replaces the cookies and storage of the session with a cached state and opens its landing URL.
+     * The session has to be on the state's origin to set them, so it navigates there first if it is not.
+     * @param driver Session to authenticate
+     * @param state Cached state
+     * @return true if the landing URL was reached, false if the application redirected elsewhere (state rejected)
+     */
+    public static boolean restore(WebDriver driver, SessionState state) {
+        if (!state.origin().equals(originOf(driver.getCurrentUrl()))) {
+            driver.get(state.origin() + "/");
+        }
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : state.cookies()) {
+            driver.manage().addCookie(cookie);
+        }
+        ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE_SCRIPT, state.localStorage(), state.sessionStorage());
+        driver.get(state.landingUrl());
+        return NavigationState.sameUrl(driver.getCurrentUrl(), state.landingUrl());
+    }
+
+    private static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getRawAuthority();
+        } catch (RuntimeException e) {
+            return "";
+        }
+    }
+
+    private static Map<String, String> asStringMap(Object value) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((k, v) -> entries.put(String.valueOf(k), String.valueOf(v)));
+        }
+        return Map.copyOf(entries);
+    }
+}
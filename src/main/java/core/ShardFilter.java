@@ -0,0 +1,218 @@
+package core;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import utils.Helper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * ShardFilter keeps only the test classes that belong to {@link TestSettings#SHARD} when the suite is split
+ * across machines. Classes with a recorded duration are bin-packed longest-first onto the shard with the
+ * least total duration so far; classes that have never run are assigned by a hash of their name.
+ * The history file is rewritten by every fork that finishes, so it is not read directly: the first fork
+ * plans from it once and writes the plan to {@link TestSettings#SHARD_PLAN}, and every later fork of the
+ * run (including the quarantined execution) reads that snapshot instead. The plan file is never rewritten
+ * while it exists; point all shard machines at one shared file so they agree, or delete it to replan.
+ * Data-driven tests with a partitioned {@link CsvRecordSource} run in every shard on their own slice of rows.
+ * Registered through META-INF/services; a no-op when -Dshard is not set.
+ */
+public class ShardFilter extends Helper implements PostDiscoveryFilter {
+    private static final String SHARDS_KEY = "shards";
+    private static final String CLASS_PREFIX = "class.";
+
+    private static volatile Map<String, Integer> plan;
+
+    public ShardFilter() {
+        super();
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        ShardSpec shard = TestSettings.SHARD;
+        if (shard == null) {
+            return FilterResult.included("Sharding disabled");
+        }
+        String className = topLevelClassName(descriptor);
+        if (className == null) {
+            return FilterResult.included("Not part of a test class");
+        }
+        if (isPartitionedDataTest(descriptor)) {
+            return FilterResult.included("Rows of the data source are split across all shards");
+        }
+        int assigned = shardOf(className, shard.total());
+        return FilterResult.includedIf(assigned == shard.index(),
+                () -> className + " belongs to shard " + shard,
+                () -> className + " belongs to shard " + assigned + "/" + shard.total());
+    }
+
+    /**
+     * Gets the shard a test class is assigned to
+     * @param className Fully qualified name of a top-level test class
+     * @param total Number of shards
+     * @return 1-based shard number
+     */
+    static int shardOf(String className, int total) {
+        Integer assigned = plan(total).get(className);
+        return assigned != null ? assigned : Math.floorMod(className.hashCode(), total) + 1;
+    }
+
+    private static Map<String, Integer> plan(int total) {
+        Map<String, Integer> current = plan;
+        if (current == null) {
+            synchronized (ShardFilter.class) {
+                current = plan;
+                if (current == null) {
+                    current = loadOrCreatePlan(Paths.get(TestSettings.SHARD_PLAN), total);
+                    plan = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reads the plan snapshot of this run, planning it from the test history first if no fork has yet.
+     * Forks serialize on a lock file next to the plan, so exactly one of them writes it.
+     */
+    private static Map<String, Integer> loadOrCreatePlan(Path file, int total) {
+        Path directory = file.toAbsolutePath().getParent();
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(directory.resolve(file.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                if (Files.isRegularFile(file)) {
+                    Map<String, Integer> stored = readPlan(file, total);
+                    if (stored != null) {
+                        logger.info("Using shard plan {} for {} classes", file, stored.size());
+                        return stored;
+                    }
+                    logger.warn("Shard plan {} was made for a different number of shards, planning {} shards without it",
+                            file, total);
+                    return binPack(TestHistory.get().classDurations(), total);
+                }
+                Map<String, Integer> planned = binPack(TestHistory.get().classDurations(), total);
+                writePlan(file, planned, total);
+                logger.info("Wrote shard plan {}", file);
+                return planned;
+            }
+        } catch (IOException e) {
+            logger.warn("Shard plan {} is not usable, planning from the test history: {}", file, e.getMessage());
+            return binPack(TestHistory.get().classDurations(), total);
+        }
+    }
+
+    private static Map<String, Integer> readPlan(Path file, int total) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        if (!String.valueOf(total).equals(properties.getProperty(SHARDS_KEY))) {
+            return null;
+        }
+        Map<String, Integer> assignment = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(CLASS_PREFIX)) {
+                try {
+                    assignment.put(key.substring(CLASS_PREFIX.length()), Integer.parseInt(properties.getProperty(key).trim()));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid shard of " + key + " in " + file, e);
+                }
+            }
+        }
+        return assignment;
+    }
+
+    private static void writePlan(Path file, Map<String, Integer> assignment, int total) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write("# Shard of every recorded test class, written by core.ShardFilter\n");
+            writer.write(SHARDS_KEY + "=" + total + "\n");
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(assignment).entrySet()) {
+                writer.write(CLASS_PREFIX + entry.getKey() + "=" + entry.getValue() + "\n");
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Map<String, Integer> binPack(Map<String, Long> durations, int total) {
+        List<Map.Entry<String, Long>> classes = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            // Nested classes always run with their enclosing class
+            if (!entry.getKey().contains("$")) {
+                classes.add(entry);
+            }
+        }
+        classes.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        long[] loads = new long[total];
+        Map<String, Integer> assignment = new HashMap<>();
+        for (Map.Entry<String, Long> entry : classes) {
+            int lightest = 0;
+            for (int i = 1; i < total; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            loads[lightest] += entry.getValue();
+            assignment.put(entry.getKey(), lightest + 1);
+        }
+        logger.info("Planned {} shards from {} recorded classes, expected durations (ms): {}",
+                total, classes.size(), Arrays.toString(loads));
+        return assignment;
+    }
+
+    private static boolean isPartitionedDataTest(TestDescriptor descriptor) {
+        if (descriptor.getSource().orElse(null) instanceof MethodSource methodSource) {
+            try {
+                CsvRecordSource source = methodSource.getJavaMethod().getAnnotation(CsvRecordSource.class);
+                return source != null && source.partitioned();
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the top-level test class a descriptor belongs to
+     * @param descriptor Test, container or nested class descriptor
+     * @return Fully qualified class name, or null for the engine and other non-class descriptors
+     */
+    static String topLevelClassName(TestDescriptor descriptor) {
+        String className = null;
+        for (Optional<TestDescriptor> current = Optional.of(descriptor); current.isPresent();
+             current = current.get().getParent()) {
+            TestSource source = current.get().getSource().orElse(null);
+            if (source instanceof ClassSource classSource) {
+                className = classSource.getClassName();
+            }
+        }
+        return className;
+    }
+}
@@ -0,0 +1,42 @@
+package core;
+
+/**
+ * ShardSpec identifies one slice of the suite when it is split across machines.
+ * Usage: mvn clean test -Dshard=2/4 runs the second of four shards.
+ * @param index 1-based shard number
+ * @param total Number of shards
+ */
+public record ShardSpec(int index, int total) {
+
+    public ShardSpec {
+        if (total < 1 || index < 1 || index > total) {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + total + ", expected i/n with 1 <= i <= n");
+        }
+    }
+
+    /**
+     * Parses a shard in the form i/n
+     * @param value Shard specification, may be null or blank
+     * @return ShardSpec, or null if sharding is not requested
+     * @throws IllegalArgumentException if the value is not in the form i/n
+     */
+    public static ShardSpec parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().split("/");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid shard '" + value + "', expected i/n, e.g. 1/4");
+        }
+        try {
+            return new ShardSpec(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid shard '" + value + "', expected i/n, e.g. 1/4", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + total;
+    }
+}
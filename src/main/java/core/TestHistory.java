@@ -0,0 +1,157 @@
+package core;
+
+import utils.Helper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * TestHistory stores the durations of test classes and test methods from previous runs in
+ * {@link TestSettings#TEST_HISTORY_DIR}/durations.properties. It is read once per JVM to order classes and by the
+ * first fork that plans shards, and every fork merges its own durations into it when it exits under a file lock.
+ * New durations are averaged with the stored ones so a single slow run does not reshuffle the shards.
+ */
+public final class TestHistory extends Helper {
+    private static final String DURATIONS_FILE = "durations.properties";
+    private static final String LOCK_FILE = "durations.lock";
+    private static final String CLASS_PREFIX = "class.";
+    private static final String TEST_PREFIX = "test.";
+
+    private static volatile TestHistory current;
+
+    private final Map<String, Long> classDurations;
+    private final Map<String, Long> testDurations;
+
+    private TestHistory(Map<String, Long> classDurations, Map<String, Long> testDurations) {
+        super();
+        this.classDurations = classDurations;
+        this.testDurations = testDurations;
+    }
+
+    /**
+     * Gets the history as it was when this JVM first read it
+     * @return TestHistory, empty if no history has been recorded yet
+     */
+    public static TestHistory get() {
+        TestHistory history = current;
+        if (history == null) {
+            synchronized (TestHistory.class) {
+                history = current;
+                if (history == null) {
+                    history = read(historyDirectory().resolve(DURATIONS_FILE));
+                    current = history;
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Gets the recorded duration of a test class
+     * @param className Fully qualified class name
+     * @return Duration in milliseconds, or empty if the class has not run before
+     */
+    public OptionalLong classDuration(String className) {
+        Long duration = classDurations.get(className);
+        return duration == null ? OptionalLong.empty() : OptionalLong.of(duration);
+    }
+
+    /**
+     * Gets the recorded duration of a test method
+     * @param testKey Class name and method name in the form com.example.MyTest#method
+     * @return Duration in milliseconds, or empty if the test has not run before
+     */
+    public OptionalLong testDuration(String testKey) {
+        Long duration = testDurations.get(testKey);
+        return duration == null ? OptionalLong.empty() : OptionalLong.of(duration);
+    }
+
+    /**
+     * Gets the durations of all recorded test classes
+     * @return Duration in milliseconds by class name, sorted by name
+     */
+    public Map<String, Long> classDurations() {
+        return Collections.unmodifiableMap(classDurations);
+    }
+
+    /**
+     * Merges the durations measured in this fork into the history file. Forks of the same build
+     * serialize on a lock file so none of them loses the others' results.
+     * @param classes Measured durations in milliseconds by class name
+     * @param tests Measured durations in milliseconds by test key
+     * @throws IOException if the history file cannot be written
+     */
+    static void merge(Map<String, Long> classes, Map<String, Long> tests) throws IOException {
+        Path directory = historyDirectory();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(DURATIONS_FILE);
+
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            TestHistory stored = read(file);
+            classes.forEach((name, duration) -> stored.classDurations.merge(name, duration, TestHistory::average));
+            tests.forEach((name, duration) -> stored.testDurations.merge(name, duration, TestHistory::average));
+
+            Path temp = directory.resolve(DURATIONS_FILE + "." + ProcessHandle.current().pid() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("# Test durations in milliseconds, written by core.DurationRecorder\n");
+                for (Map.Entry<String, Long> entry : stored.classDurations.entrySet()) {
+                    writer.write(CLASS_PREFIX + entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+                for (Map.Entry<String, Long> entry : stored.testDurations.entrySet()) {
+                    writer.write(TEST_PREFIX + entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private static long average(long stored, long measured) {
+        return (stored + measured) / 2;
+    }
+
+    private static TestHistory read(Path file) {
+        Map<String, Long> classes = new TreeMap<>();
+        Map<String, Long> tests = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                logger.warn("Failed to read test history {}: {}", file, e.getMessage());
+            }
+            for (String key : properties.stringPropertyNames()) {
+                try {
+                    long duration = Long.parseLong(properties.getProperty(key).trim());
+                    if (key.startsWith(CLASS_PREFIX)) {
+                        classes.put(key.substring(CLASS_PREFIX.length()), duration);
+                    } else if (key.startsWith(TEST_PREFIX)) {
+                        tests.put(key.substring(TEST_PREFIX.length()), duration);
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Skip corrupt entries, they are rewritten on the next merge
+                }
+            }
+        }
+        return new TestHistory(classes, tests);
+    }
+
+    private static Path historyDirectory() {
+        return Paths.get(TestSettings.TEST_HISTORY_DIR);
+    }
+}
@@ -1,10 +1,14 @@
 package core;
 
 import io.github.cdimascio.dotenv.Dotenv;
-import org.json.JSONObject;
-import utils.Helper;
+import org.openqa.selenium.PageLoadStrategy;
+import utils.TestDataStore;
 import static utils.Constants.*;
-import java.util.Objects;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
 
 /**
  * TestSettings manages centralized configuration from .env file, system properties, and TestData.json.
@@ -21,16 +25,20 @@ public class TestSettings {
     /** Test environment (GURU, APPLITOOLS, etc.) - Usage: mvn clean test -Denv=GURU */
     public static final String TEST_ENV = System.getProperty("env", DOTENV.get("TEST_ENV","GURU"));
 
-    /** Environment configuration loaded from TestData.json */
-    public static final JSONObject ENV_CONFIG = Objects.requireNonNull(Helper.loadJsonFile(JSON_DATA_PATH)).getJSONObject(TEST_ENV);
+    /** Indexed TestData.json; environments are only parsed when first read */
+    public static final TestDataStore TEST_DATA = TestDataStore.of(JSON_DATA_PATH);
 
     /** Base URL for the test environment */
-    public static final String BASE_URL = ENV_CONFIG.getString("base_url");
+    public static final String BASE_URL = TEST_DATA.getString(TEST_ENV, "base_url");
 
     // BROWSER SETTINGS
     /** Browser type (chrome, firefox, edge) - Usage: mvn clean test -Dbrowser=firefox */
     public static final String BROWSER_TYPE = System.getProperty("browser", DOTENV.get("BROWSER","chrome"));
 
+    /** Comma-separated browsers @CrossBrowser tests without their own list fan out to, empty for chrome, firefox and edge - Usage: mvn clean test -DfanoutBrowsers=chrome,firefox */
+    public static final List<String> FANOUT_BROWSERS = Arrays.stream(System.getProperty("fanoutBrowsers", DOTENV.get("FANOUT_BROWSERS", "")).split(","))
+            .map(String::trim).filter(browser -> !browser.isEmpty()).toList();
+
     /** Screen resolution for browser window */
     public static final String SCREEN_RESOLUTION = System.getProperty("resolution", DOTENV.get("SCREEN_RESOLUTION", "1920,1080"));
 
@@ -44,8 +52,11 @@ public class TestSettings {
     /** Implicit wait timeout in seconds */
     public static final int IMPLICIT_WAIT = 2;
 
-    /** Page load timeout in seconds */
-    public static final int PAGE_LOAD_TIMEOUT = 15;
+    /** Page load timeout in seconds, enforced on every session */
+    public static final int PAGE_LOAD_TIMEOUT = Integer.parseInt(System.getProperty("pageLoadTimeout", DOTENV.get("PAGE_LOAD_TIMEOUT", "15")));
+
+    /** Page load strategy (normal, eager, none) - Usage: mvn clean test -DpageLoadStrategy=eager */
+    public static final PageLoadStrategy PAGE_LOAD_STRATEGY = PageLoadStrategy.valueOf(System.getProperty("pageLoadStrategy", DOTENV.get("PAGE_LOAD_STRATEGY", "normal")).trim().toUpperCase());
 
     // HUB SETTINGS
     /** Hub type (NONE, GRID) - Usage: mvn clean test -DhubType=GRID */
@@ -54,4 +65,159 @@ public class TestSettings {
     /** Selenium Grid hub URL */
     public static final String GRID_HUB_URL = "http://localhost:4444";
 
+    /** Create all local sessions of a browser type against one long-lived driver service - Usage: mvn clean test -DsharedDriverService=false */
+    public static final boolean SHARED_DRIVER_SERVICE = Boolean.parseBoolean(System.getProperty("sharedDriverService", DOTENV.get("SHARED_DRIVER_SERVICE", "true")));
+
+    // BROWSER SLOT SETTINGS (declared before the session pool settings, which are sized from them)
+    /** Estimated memory of one browser in MB - Usage: mvn clean test -DbrowserMemoryMb=800 */
+    public static final int BROWSER_MEMORY_MB = Integer.parseInt(System.getProperty("browserMemoryMb", DOTENV.get("BROWSER_MEMORY_MB", BROWSER_TYPE.equalsIgnoreCase("firefox") ? "500" : "600")));
+
+    /** Memory in MB kept free for the OS, the build and the test JVMs */
+    public static final int MEMORY_RESERVE_MB = Integer.parseInt(System.getProperty("memoryReserveMb", DOTENV.get("MEMORY_RESERVE_MB", "1024")));
+
+    /** Seconds between re-measurements of the available browser slots */
+    public static final int SLOT_CHECK_INTERVAL = Integer.parseInt(System.getProperty("slotCheckInterval", DOTENV.get("SLOT_CHECK_INTERVAL", "10")));
+
+    /** Number of surefire forks sharing this machine, passed by the surefire argLine */
+    public static final int FORK_COUNT = Integer.parseInt(System.getProperty("forks", "1"));
+
+    /** 1-based number of this surefire fork, passed by the surefire argLine */
+    public static final int FORK_NUMBER = Integer.parseInt(System.getProperty("forkNumber", "1"));
+
+    // SESSION POOL SETTINGS
+    /** Reuse warm browser sessions across tests - Usage: mvn clean test -DsessionPool=false */
+    public static final boolean SESSION_POOL_ENABLED = Boolean.parseBoolean(System.getProperty("sessionPool", DOTENV.get("SESSION_POOL", "true")));
+
+    /** Sessions pre-warmed per fork, defaults to the JUnit parallelism - Usage: mvn clean test -DsessionPoolSize=4 */
+    public static final int SESSION_POOL_SIZE = Integer.parseInt(System.getProperty("sessionPoolSize", DOTENV.get("SESSION_POOL_SIZE", String.valueOf(junitParallelism()))));
+
+    /** Number of tests a pooled session serves before it is replaced by a fresh browser */
+    public static final int SESSION_MAX_USES = Integer.parseInt(System.getProperty("sessionMaxUses", DOTENV.get("SESSION_MAX_USES", "25")));
+
+    /** Reuse the cookies and storage of a login for later logins with the same credentials - Usage: mvn clean test -DsessionStateCache=false */
+    public static final boolean SESSION_STATE_CACHE = Boolean.parseBoolean(System.getProperty("sessionStateCache", DOTENV.get("SESSION_STATE_CACHE", "true")));
+
+    /** Seconds a cached login state is reused before logging in again */
+    public static final long SESSION_STATE_TTL = Long.parseLong(System.getProperty("sessionStateTtl", DOTENV.get("SESSION_STATE_TTL", "900")));
+
+    // NETWORK SETTINGS
+    /** Network blocking profile (none, ads, lean, strict) - Usage: mvn clean test -DblockingProfile=lean */
+    public static final BlockingProfile BLOCKING_PROFILE = BlockingProfile.fromName(System.getProperty("blockingProfile", DOTENV.get("BLOCKING_PROFILE", "ads")));
+
+    /** Extra comma-separated URL patterns to block, e.g. *cdn.example.com/video* */
+    public static final List<String> BLOCKED_URL_PATTERNS = Arrays.stream(System.getProperty("blockedUrls", DOTENV.get("BLOCKED_URLS", "")).split(","))
+            .map(String::trim).filter(pattern -> !pattern.isEmpty()).toList();
+
+    // FIXTURE SETTINGS
+    /** Serve the demo sites from recorded snapshots (off, replay, record) - Usage: mvn clean test -Dfixtures=replay */
+    public static final FixtureServer.Mode FIXTURE_MODE = FixtureServer.Mode.fromName(System.getProperty("fixtures", DOTENV.get("FIXTURES", "off")));
+
+    /** Directory holding the recorded snapshots, one subdirectory per host */
+    public static final String FIXTURE_DIR = System.getProperty("fixtureDir", DOTENV.get("FIXTURE_DIR", ".fixtures"));
+
+    /** Milliseconds added before every fixture response - Usage: mvn clean test -Dfixtures=replay -DfixtureLatencyMs=100 */
+    public static final int FIXTURE_LATENCY_MS = Integer.parseInt(System.getProperty("fixtureLatencyMs", DOTENV.get("FIXTURE_LATENCY_MS", "0")));
+
+    /** Kilobits per second fixture responses are throttled to, 0 for unlimited - Usage: mvn clean test -Dfixtures=replay -DfixtureBandwidthKbps=1600 */
+    public static final int FIXTURE_BANDWIDTH_KBPS = Integer.parseInt(System.getProperty("fixtureBandwidthKbps", DOTENV.get("FIXTURE_BANDWIDTH_KBPS", "0")));
+
+    // LOCATOR SETTINGS
+    /** Time every locator's evaluation inside the browser and report the slowest - Usage: mvn clean test -DlocatorProfiling=true */
+    public static final boolean LOCATOR_PROFILING = Boolean.parseBoolean(System.getProperty("locatorProfiling", DOTENV.get("LOCATOR_PROFILING", "false")));
+
+    // PERFORMANCE SETTINGS
+    /** Read navigation, resource and paint timings after every page load - Usage: mvn clean test -DpagePerformance=false */
+    public static final boolean PAGE_PERFORMANCE = Boolean.parseBoolean(System.getProperty("pagePerformance", DOTENV.get("PAGE_PERFORMANCE", "true")));
+
+    /** Fail tests whose page loads exceed the page object's @PerformanceBudget - Usage: mvn clean test -DperformanceBudgets=false */
+    public static final boolean PERFORMANCE_BUDGETS = Boolean.parseBoolean(System.getProperty("performanceBudgets", DOTENV.get("PERFORMANCE_BUDGETS", "true")));
+
+    // FAILURE ARTIFACT SETTINGS
+    /** Capture screenshot, DOM and browser logs of failing tests - Usage: mvn clean test -DfailureArtifacts=false */
+    public static final boolean FAILURE_ARTIFACTS = Boolean.parseBoolean(System.getProperty("failureArtifacts", DOTENV.get("FAILURE_ARTIFACTS", "true")));
+
+    /** Captured failures waiting to be written; further failures are dropped instead of blocking the tests */
+    public static final int ARTIFACT_QUEUE_SIZE = Integer.parseInt(System.getProperty("artifactQueueSize", DOTENV.get("ARTIFACT_QUEUE_SIZE", "32")));
+
+    // RETRY SETTINGS
+    /** Times a failed @RetryingTest is retried on a fresh pooled session, 2 in the ci profile - Usage: mvn clean test -Dretries=2 */
+    public static final int RETRY_COUNT = Integer.parseInt(System.getProperty("retries", DOTENV.get("RETRIES", "0")));
+
+    /** Share of runs passing only on a retry above which a test is quarantined */
+    public static final double FLAKY_THRESHOLD = Double.parseDouble(System.getProperty("flakyThreshold", DOTENV.get("FLAKY_THRESHOLD", "0.2")));
+
+    /** Tests to run by flakiness (all, stable, quarantined) - Usage: mvn clean test -DflakyPhase=quarantined */
+    public static final String FLAKY_PHASE = System.getProperty("flakyPhase", DOTENV.get("FLAKY_PHASE", "all"));
+
+    // SHARDING SETTINGS
+    /** Run one slice of the suite, e.g. the second of four machines - Usage: mvn clean test -Dshard=2/4 */
+    public static final ShardSpec SHARD = ShardSpec.parse(System.getProperty("shard", DOTENV.get("SHARD", "")));
+
+    /** Shard plan snapshot shared by all forks of a run; reused if it exists - Usage: mvn clean test -Dshard=2/4 -DshardPlan=/shared/plan.properties */
+    public static final String SHARD_PLAN = System.getProperty("shardPlan", DOTENV.get("SHARD_PLAN", SHARD_PLAN_PATH));
+
+    /** Git ref to diff against; only tests depending on changed files run - Usage: mvn clean test -DchangedSince=origin/main */
+    public static final String CHANGED_SINCE = System.getProperty("changedSince", DOTENV.get("CHANGED_SINCE", "")).trim();
+
+    /** Directory holding the duration history used for sharding and class ordering; share it between shards */
+    public static final String TEST_HISTORY_DIR = System.getProperty("testHistoryDir", DOTENV.get("TEST_HISTORY_DIR", ".test-history"));
+
+    // LOAD SETTINGS
+    /** Journey the load runner repeats (login, alerts or a Journey class name) - Usage: mvn -Pload verify -Djourney=alerts */
+    public static final String LOAD_JOURNEY = System.getProperty("journey", DOTENV.get("LOAD_JOURNEY", "alerts"));
+
+    /** Concurrent virtual users, one browser session each - Usage: mvn -Pload verify -DloadUsers=10 */
+    public static final int LOAD_USERS = Integer.parseInt(System.getProperty("loadUsers", DOTENV.get("LOAD_USERS", "5")));
+
+    /** Seconds over which the virtual users start; metrics are reset once all have started */
+    public static final long LOAD_RAMP_UP = Long.parseLong(System.getProperty("loadRampUp", DOTENV.get("LOAD_RAMP_UP", "30")));
+
+    /** Seconds of steady load measured after the ramp-up - Usage: mvn -Pload verify -DloadDuration=300 */
+    public static final long LOAD_DURATION = Long.parseLong(System.getProperty("loadDuration", DOTENV.get("LOAD_DURATION", "120")));
+
+    /** Mean pause after every journey step in milliseconds, randomized by +-50% */
+    public static final long LOAD_THINK_TIME_MS = Long.parseLong(System.getProperty("loadThinkTimeMs", DOTENV.get("LOAD_THINK_TIME_MS", "1000")));
+
+    /** Journey iterations started per second across all users, 0 to start the next one as soon as a user is free - Usage: mvn -Pload verify -DloadArrivalRate=2 */
+    public static final double LOAD_ARRIVAL_RATE = Double.parseDouble(System.getProperty("loadArrivalRate", DOTENV.get("LOAD_ARRIVAL_RATE", "0")));
+
+    /**
+     * Maps a site URL to the fixture server when fixtures are enabled
+     * @param url Absolute URL of a demo site page
+     * @return URL to open in the browser
+     */
+    public static String resolveUrl(String url) {
+        return FIXTURE_MODE == FixtureServer.Mode.OFF ? url : FixtureServer.localUrl(url);
+    }
+
+    /**
+     * Resolves the number of tests JUnit runs concurrently from junit-platform.properties
+     * (or system properties), mirroring the fixed and dynamic parallel strategies.
+     */
+    private static int junitParallelism() {
+        Properties properties = new Properties();
+        try (InputStream stream = TestSettings.class.getClassLoader().getResourceAsStream("junit-platform.properties")) {
+            if (stream != null) {
+                properties.load(stream);
+            }
+        } catch (Exception e) {
+            return 1;
+        }
+        properties.putAll(System.getProperties());
+
+        if (!Boolean.parseBoolean(properties.getProperty("junit.jupiter.execution.parallel.enabled", "false"))) {
+            return 1;
+        }
+        String strategy = properties.getProperty("junit.jupiter.execution.parallel.config.strategy", "dynamic").trim();
+        if (strategy.equals("custom") && BrowserSlotStrategy.class.getName().equals(
+                properties.getProperty("junit.jupiter.execution.parallel.config.custom.class", "").trim())) {
+            return BrowserSlots.initialCapacity();
+        }
+        if (strategy.equals("fixed")) {
+            return Integer.parseInt(properties.getProperty("junit.jupiter.execution.parallel.config.fixed.parallelism", "1").trim());
+        }
+        double factor = Double.parseDouble(properties.getProperty("junit.jupiter.execution.parallel.config.dynamic.factor", "1").trim());
+        return Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * factor));
+    }
+
 }
@@ -0,0 +1,24 @@
+package journeys;
+
+import pages.automation_demo.AlertPage;
+
+/**
+ * Accepts the OK alert and dismisses the OK & Cancel alert of the automation demo alerts page.
+ */
+public class AlertJourney implements Journey {
+
+    @Override
+    public void run(VirtualUser user) {
+        AlertPage alertPage = new AlertPage();
+        user.step("alert_ok", () -> {
+            alertPage.clickAlertWithOKButton();
+            alertPage.acceptAlert();
+        });
+        user.step("alert_cancel", () -> {
+            alertPage.selectAlertTab("Alert with OK & Cancel");
+            alertPage.clickAlertWithOKCancelButton();
+            alertPage.dismissAlert();
+            alertPage.verifyAlertDismissedMessage("You Pressed Cancel");
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package journeys;
+
+import java.util.Locale;
+
+/**
+ * Journey is one user flow through the page objects, run repeatedly by the virtual users of {@link LoadRunner}.
+ * An iteration runs on a thread that already holds a session (DriverManager.getDriver()), so page objects are
+ * created as in a test. Group page actions into named steps with {@link VirtualUser#step(String, Runnable)} to
+ * get a latency per step next to the per-action latencies BasePage records.
+ *
+ * Usage:
+ * - mvn -Pload verify -Djourney=alerts
+ * - mvn -Pload verify -Djourney=com.example.CheckoutJourney   (any Journey with a no-argument constructor)
+ */
+@FunctionalInterface
+public interface Journey {
+
+    /**
+     * Runs one iteration of the flow
+     * @param user Virtual user running it
+     */
+    void run(VirtualUser user);
+
+    /**
+     * Gets a built-in journey by name, or instantiates a Journey class by its fully qualified name
+     * @param name login, alerts, or a class name
+     * @return Journey instance
+     */
+    static Journey named(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "login" -> new LoginJourney();
+            case "alerts" -> new AlertJourney();
+            default -> {
+                try {
+                    yield Class.forName(name.trim()).asSubclass(Journey.class).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("Unknown journey: " + name + " (login, alerts or a Journey class name)", e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,217 @@
+package journeys;
+
+import core.ActionMetrics;
+import core.DriverManager;
+import core.DriverPool;
+import core.TestSettings;
+import org.json.JSONObject;
+import utils.Helper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static utils.Constants.REPORTS_DIR;
+
+/**
+ * LoadRunner runs a {@link Journey} as concurrent virtual users, each with its own headless browser session,
+ * to find the capacity limits of the application behind the page objects. Users start evenly spread over the
+ * ramp-up and repeat the journey until the duration is over. With an arrival rate, iterations start on a shared
+ * schedule at that rate (an open model): when all users are busy, iterations start late instead of bursting
+ * later, so the achieved throughput falling behind the target shows the limit. Without it every user starts its
+ * next iteration right after the previous one (a closed model).
+ * Each iteration leases a pooled session like a test does; a failed iteration quits its session.
+ * Latencies come from {@link ActionMetrics}: BasePage actions, journey steps, the wait for a browser slot
+ * (DriverManager.slot_wait, separate from session creation) and whole iterations. Metrics are reset when the
+ * ramp-up ends, so the report covers the steady state only. The summary is logged and written as JSON.
+ *
+ * Usage:
+ * - mvn -Pload verify -Djourney=alerts -DloadUsers=10 -DloadDuration=300 -DloadRampUp=60
+ * - mvn -Pload verify -Djourney=login -Denv=Applitools -DloadArrivalRate=2 -DloadThinkTimeMs=500
+ */
+public final class LoadRunner extends Helper {
+    private static final String RUNNER = LoadRunner.class.getSimpleName();
+    private static final int REPORTED_STEPS = 15;
+    /** Pause after a session could not be created, so a missing browser does not spin */
+    private static final long SESSION_FAILURE_BACKOFF_MS = 1000;
+
+    private final String journeyName;
+    private final Journey journey;
+    private final int users;
+    private final long startNanos;
+    private final long steadyNanos;
+    private final long endNanos;
+    private final long arrivalIntervalNanos;
+    private final AtomicLong nextArrival;
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder steadyIterations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private LoadRunner(String journeyName, int users, long rampUpSeconds, long durationSeconds, double arrivalRate) {
+        super();
+        this.journeyName = journeyName;
+        this.journey = Journey.named(journeyName);
+        this.users = users;
+        this.startNanos = System.nanoTime();
+        this.steadyNanos = this.startNanos + TimeUnit.SECONDS.toNanos(rampUpSeconds);
+        this.endNanos = this.steadyNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.arrivalIntervalNanos = arrivalRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / arrivalRate) : 0;
+        this.nextArrival = new AtomicLong(this.startNanos);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadRunner runner = new LoadRunner(TestSettings.LOAD_JOURNEY, TestSettings.LOAD_USERS, TestSettings.LOAD_RAMP_UP,
+                TestSettings.LOAD_DURATION, TestSettings.LOAD_ARRIVAL_RATE);
+        runner.run();
+        DriverPool.shutdownAll();
+    }
+
+    private void run() throws InterruptedException {
+        logger.info("Load run of journey {}: {} users, {} s ramp-up, {} s steady, arrival rate {}, think time {} ms",
+                journeyName, users, TestSettings.LOAD_RAMP_UP, TestSettings.LOAD_DURATION,
+                arrivalIntervalNanos > 0 ? TestSettings.LOAD_ARRIVAL_RATE + "/s" : "unpaced", TestSettings.LOAD_THINK_TIME_MS);
+        List<Thread> threads = new ArrayList<>();
+        for (int id = 1; id <= users; id++) {
+            VirtualUser user = new VirtualUser(id, journeyName);
+            long userStart = startNanos + (steadyNanos - startNanos) * (id - 1) / users;
+            threads.add(Thread.ofVirtual().name("virtual-user-" + id).start(() -> runUser(user, userStart)));
+        }
+
+        sleepUntil(steadyNanos);
+        ActionMetrics.reset();
+        logger.info("Ramp-up finished after {} iterations, measuring", iterations.sum());
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report();
+    }
+
+    private void runUser(VirtualUser user, long userStart) {
+        if (!sleepUntil(userStart)) {
+            return;
+        }
+        while (!Thread.currentThread().isInterrupted()) {
+            long arrival = arrivalIntervalNanos > 0
+                    ? nextArrival.updateAndGet(previous -> Math.max(previous, System.nanoTime()) + arrivalIntervalNanos) - arrivalIntervalNanos
+                    : System.nanoTime();
+            if (arrival >= endNanos || !sleepUntil(arrival)) {
+                return;
+            }
+            user.nextIteration();
+            runIteration(user);
+        }
+    }
+
+    private void runIteration(VirtualUser user) {
+        DriverManager driverManager;
+        try {
+            driverManager = new DriverManager(TestSettings.BROWSER_TYPE, TestSettings.HUB_TYPE);
+        } catch (Exception e) {
+            recordError("session: " + e.getClass().getSimpleName(), user, e);
+            sleepUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SESSION_FAILURE_BACKOFF_MS));
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean passed = false;
+        try {
+            journey.run(user);
+            passed = true;
+        } catch (Exception | AssertionError e) {
+            recordError(e.getClass().getSimpleName(), user, e);
+        } finally {
+            ActionMetrics.record(RUNNER, passed ? "iteration" : "failed_iteration", journeyName, start);
+            if (passed) {
+                driverManager.release();
+            } else {
+                // The page state after a failure is unknown, so the session is not reused
+                driverManager.quit();
+            }
+        }
+        iterations.increment();
+        long now = System.nanoTime();
+        if (now >= steadyNanos && now < endNanos) {
+            steadyIterations.increment();
+        }
+    }
+
+    private void recordError(String type, VirtualUser user, Throwable error) {
+        failures.increment();
+        errors.computeIfAbsent(type, k -> new LongAdder()).increment();
+        logger.warn("Virtual user {} iteration {} failed: {}", user.id(), user.iteration(), error.getMessage());
+    }
+
+    /**
+     * Sleeps until the System.nanoTime() deadline
+     * @return false if the thread was interrupted
+     */
+    private static boolean sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void report() {
+        double steadySeconds = Math.max(1e-9, (endNanos - steadyNanos) / 1e9);
+        double throughput = steadyIterations.sum() / steadySeconds;
+        JSONObject errorCounts = new JSONObject();
+        errors.forEach((type, count) -> errorCounts.put(type, count.sum()));
+        JSONObject report = new JSONObject()
+                .put("journey", journeyName)
+                .put("users", users)
+                .put("ramp_up_s", TestSettings.LOAD_RAMP_UP)
+                .put("duration_s", TestSettings.LOAD_DURATION)
+                .put("target_arrival_rate", TestSettings.LOAD_ARRIVAL_RATE)
+                .put("think_time_ms", TestSettings.LOAD_THINK_TIME_MS)
+                .put("iterations", iterations.sum())
+                .put("steady_iterations", steadyIterations.sum())
+                .put("failures", failures.sum())
+                .put("errors", errorCounts)
+                .put("throughput_per_s", throughput)
+                .put("latencies", ActionMetrics.toJson().getJSONArray("metrics"));
+
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%8s %10s %10s %10s  %s",
+                "count", "p50 ms", "p90 ms", "p99 ms", "step"));
+        ActionMetrics.snapshot().entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<ActionMetrics.Key, ActionMetrics.Histogram> entry) ->
+                        entry.getValue().getSumMillis()).reversed())
+                .limit(REPORTED_STEPS)
+                .forEach(entry -> table.append(String.format(Locale.ROOT, "%n%8d %10.1f %10.1f %10.1f  %s.%s %s",
+                        entry.getValue().getCount(), entry.getValue().percentileMillis(0.50),
+                        entry.getValue().percentileMillis(0.90), entry.getValue().percentileMillis(0.99),
+                        entry.getKey().page(), entry.getKey().action(), entry.getKey().locator())));
+        logger.info("Journey {} with {} users: {} iterations in the steady state, {}/s, {} failures {}",
+                journeyName, users, steadyIterations.sum(), String.format(Locale.ROOT, "%.2f", throughput),
+                failures.sum(), errors.isEmpty() ? "" : errorCounts);
+        logger.info("Slowest steps by total time:{}{}", System.lineSeparator(), table);
+        try {
+            Path directory = Paths.get(REPORTS_DIR, "load");
+            Files.createDirectories(directory);
+            Path file = directory.resolve(journeyName.replaceAll("[^\\w.-]", "_") + "-" + ProcessHandle.current().pid() + ".json");
+            Files.writeString(file, report.toString(2), StandardCharsets.UTF_8);
+            logger.info("Load report written to {}", file);
+        } catch (IOException e) {
+            logger.warn("Failed to write load report: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package journeys;
+
+import pages.applitools.DashBoardPage;
+import pages.applitools.LoginPage;
+
+/**
+ * Logs in to the Applitools demo with credentials of the virtual user and checks the dashboard.
+ * Needs -Denv=Applitools; the load profile disables the session state cache so every iteration logs in.
+ */
+public class LoginJourney implements Journey {
+
+    @Override
+    public void run(VirtualUser user) {
+        LoginPage loginPage = new LoginPage();
+        user.step("login", () -> loginPage.login("vu" + user.id() + "@example.com", "password" + user.id()));
+        DashBoardPage dashBoardPage = new DashBoardPage();
+        user.step("dashboard", dashBoardPage::verifyDashboardPageLoaded);
+    }
+}
@@ -0,0 +1,67 @@
+package journeys;
+
+import core.ActionMetrics;
+import core.TestSettings;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * VirtualUser is one simulated user of a load run. It runs its journey in a loop on its own thread and
+ * browser session, and times the journey's steps into {@link ActionMetrics} as action "step" of the journey.
+ * After every step it pauses for the think time, randomized by +-50% so users do not act in lockstep.
+ */
+public final class VirtualUser {
+    private final int id;
+    private final String journey;
+    private int iteration;
+
+    VirtualUser(int id, String journey) {
+        this.id = id;
+        this.journey = journey;
+    }
+
+    /**
+     * @return Number of the user, from 1, e.g. to derive distinct credentials
+     */
+    public int id() {
+        return id;
+    }
+
+    /**
+     * @return Number of the current iteration of this user, from 1
+     */
+    public int iteration() {
+        return iteration;
+    }
+
+    void nextIteration() {
+        iteration++;
+    }
+
+    /**
+     * Runs and times one step of the journey, then thinks
+     * @param name Step name, e.g. login
+     * @param action Page object calls of the step
+     */
+    public void step(String name, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            ActionMetrics.record(journey, "step", name, start);
+        }
+        think();
+    }
+
+    private static void think() {
+        long thinkTime = TestSettings.LOAD_THINK_TIME_MS;
+        if (thinkTime <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(thinkTime / 2, thinkTime * 3 / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,10 +2,11 @@ package pages.applitools;
 import org.openqa.selenium.By;
 
 import core.BasePage;
+import core.Locators;
 
 class DashBoardSelector {
     // Define selectors for Dashboard Page elements here
-    public static final By icoUser = By.xpath("//div[@class='logged-user-w avatar-inline']");
+    public static final By icoUser = Locators.xpath("//div[@class='logged-user-w avatar-inline']");
     
 }
 
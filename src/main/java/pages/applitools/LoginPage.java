@@ -1,6 +1,9 @@
 package pages.applitools;
 import org.openqa.selenium.By;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 import core.BasePage;
+import core.SessionStateCache;
+import core.TestSettings;
 
 /**
  * Locator holder class for LoginPage elements.
@@ -19,6 +22,7 @@ public class LoginPage extends BasePage {
 
     /**
      * Performs login action with provided credentials.
+     * The first login per credentials goes through the form; later ones reuse its cached session state.
      *
      * @param email User email
      * @param password User password
@@ -26,9 +30,15 @@ public class LoginPage extends BasePage {
      */
     public DashBoardPage login(String email, String password) {
         logger.info("Logging in with email: {} and password: {}", email, password);
-        enterText(LoginPageSelector.txtUsername, email);
-        enterText(LoginPageSelector.txtPassword, password);
-        clickButton(LoginPageSelector.btnSignIn);
+        String cacheKey = SessionStateCache.key(TestSettings.TEST_ENV, TestSettings.BASE_URL, email, password);
+        loginWithCachedSession(cacheKey, () -> {
+            openSite();
+            enterText(LoginPageSelector.txtUsername, email);
+            enterText(LoginPageSelector.txtPassword, password);
+            String loginUrl = driver.getCurrentUrl();
+            clickButton(LoginPageSelector.btnSignIn);
+            getWait(TestSettings.WAIT_ELEMENT).until(ExpectedConditions.not(ExpectedConditions.urlToBe(loginUrl)));
+        });
         return new DashBoardPage();
     }
 }
\ No newline at end of file
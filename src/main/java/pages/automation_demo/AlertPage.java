@@ -2,24 +2,22 @@ package pages.automation_demo;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import core.BasePage;
-
-import java.nio.file.Paths;
+import core.Locators;
 
 import static utils.Constants.AUTOMATION_DEMO_ALERTS_URL;
-import static utils.Constants.DOWNLOAD_FOLDER_PATH;
 
 class AlertPageSelector {
     public static final By btnAlertWithOK = By.id("OKTab");
     public static final By btnAlertWithOKCancel = By.id("CancelTab");
-    public static final By txtMessageCancelTab = By.xpath("//div[@id='CancelTab']/p");
-    public static final By tabAlertWithOKCancel = By.xpath("//a[@href='#CancelTab']");
-    public static final By tabAlertWithTextbox = By.xpath("//a[@href='#Textbox']");
+    public static final By txtMessageCancelTab = Locators.xpath("//div[@id='CancelTab']/p");
+    public static final By tabAlertWithOKCancel = Locators.xpath("//a[@href='#CancelTab']");
+    public static final By tabAlertWithTextbox = Locators.xpath("//a[@href='#Textbox']");
 //    NEW TAB WINDOW SELECTOR
-    public static final By btnNewTabWindow = By.xpath("//div[@id='Tabbed']/a");
+    public static final By btnNewTabWindow = Locators.xpath("//div[@id='Tabbed']/a");
     // UPLOAD FILE SELECTOR
 //    public static final By txtBrowserFile = By.xpath("//div[span[contains(text(), 'Browse')]]/input/..");
     public static final By txtBrowserFile = By.id("input-4");
-    public static final By imgUploadedFile = By.xpath("(//div[@class='kv-file-content']//img)[1]");
+    public static final By imgUploadedFile = Locators.xpath("(//div[@class='kv-file-content']//img)[1]");
 
     public static final By txtEnterTextForDownload = By.id("textbox");
     public static final By btnGenerateFile = By.id("createTxt");
@@ -29,8 +27,7 @@ class AlertPageSelector {
 public class AlertPage extends BasePage {
 
     public AlertPage() {
-        super();
-        openSite(AUTOMATION_DEMO_ALERTS_URL);
+        super(AUTOMATION_DEMO_ALERTS_URL);
     }
 
     public void acceptAlert() {
@@ -58,7 +55,8 @@ public class AlertPage extends BasePage {
     public void verifyAlertDismissedMessage(String expectedMessage) {
         logger.info("Verifying alert dismissed message contains: {}", expectedMessage);
 
-        String crrMsg = getElementText(AlertPageSelector.txtMessageCancelTab);
+        // The page writes the message after the alert closes, so wait in the page until it has text
+        String crrMsg = waitForElementText(AlertPageSelector.txtMessageCancelTab, "\\S").getText();
         verifyEquals(expectedMessage, crrMsg, String.format("The message %s displays intead of %s", crrMsg, expectedMessage));
     }
 
@@ -108,7 +106,7 @@ public class AlertPage extends BasePage {
 
     public void verifyDownloadedFileContent(String fileName, String expectedFileContent) {
         logger.info("Verifying downloaded file content: {}", fileName);
-        String downloadedFilePath = Paths.get(DOWNLOAD_FOLDER_PATH, fileName).toString();
+        String downloadedFilePath = getDownloadDirectory().resolve(fileName).toString();
         String fileContent = readFileContent(downloadedFilePath);
         verifyTrue(fileContent.contains(expectedFileContent), "The downloaded file content does not match the expected content.");
 
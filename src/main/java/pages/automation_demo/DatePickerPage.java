@@ -1,26 +1,47 @@
 package pages.automation_demo;
 import org.openqa.selenium.By;
 import core.BasePage;
+import core.ElementSnapshot;
+import core.Locators;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
 import static utils.Constants.AUTOMATION_DEMO_DATE_PICKER_URL;
 
 class DatePickerPageSelector {
     // Disabled Date Picker Textbox
     public static final By txtDateDisable = By.id("datepicker1");
-    public static final By btnNextMonth = By.xpath("//a[@title='Next']");
-    public static final By btnPrevMonth = By.xpath("//a[@title='Prev']");
+    public static final By btnNextMonth = Locators.xpath("//a[@title='Next']");
+    public static final By btnPrevMonth = Locators.xpath("//a[@title='Prev']");
     public static final By lblMonthYear = By.className("ui-datepicker-title");
     public static final By tblDatePicker = By.className("ui-datepicker-calendar");
+    private static final Locators.Template DAY = Locators.template("//table[@class='ui-datepicker-calendar']//a[text()='%d']");
     public static final By itmDatePickerDay(int day) {
-        return By.xpath("//table[@class='ui-datepicker-calendar']//a[text()='" + day + "']");
+        return DAY.with(day);
     }
 }
 
 public class DatePickerPage extends BasePage {
+    // Clicks Next/Prev arguments[0] times (negative for Prev) and returns the month title that is shown afterwards
+    private static final String JUMP_MONTHS_SCRIPT = String.join("\n",
+            "var delta = arguments[0], picker = document.getElementById('ui-datepicker-div');",
+            "if (!picker) { return null; }",
+            "var button = delta > 0 ? '.ui-datepicker-next' : '.ui-datepicker-prev';",
+            "for (var i = 0; i < Math.abs(delta); i++) {",
+            "  var link = picker.querySelector(button);",
+            "  if (!link || link.classList.contains('ui-state-disabled')) { break; }",
+            "  link.click();",
+            "}",
+            "var title = picker.querySelector('.ui-datepicker-title');",
+            "return title ? title.textContent.replace(/\\s+/g, ' ').trim() : null;");
 
     public DatePickerPage() {
-        super();
-        openSite(AUTOMATION_DEMO_DATE_PICKER_URL);
+        super(AUTOMATION_DEMO_DATE_PICKER_URL);
+        // The textbox and the month title are read repeatedly while selecting. jQuery UI re-renders the
+        // title on every month change; those reads go stale and are re-resolved once by the cache.
+        enableElementCache();
     }
 
     /**
@@ -35,31 +56,87 @@ public class DatePickerPage extends BasePage {
         // Open the date picker by clicking on the textbox
         clickButton(DatePickerPageSelector.txtDateDisable);
 
-        // Navigate to the correct month and year
-        while (true) {
-            String[] monthYear = getElementText(DatePickerPageSelector.lblMonthYear).split(" ");
-            int displayedMonth = convertMonthNameToNumber(monthYear[0]);
-            int displayedYear = Integer.parseInt(monthYear[1]);
+        // Navigate to the correct month and year in one round trip, stepping month by month if that fails
+        if (!jumpToMonth(localDate)) {
+            stepToMonth(localDate);
+        }
+        // Select the day
+        clickButton(DatePickerPageSelector.itmDatePickerDay(localDate.getDayOfMonth()));
+        waitForElementInvisible(DatePickerPageSelector.tblDatePicker);
+
+        // Verify the picker wrote the expected day; otherwise redo the selection the slow way
+        String selected = getElementValue(DatePickerPageSelector.txtDateDisable);
+        if (!localDate.format(DATE_FORMATTER).equals(selected)) {
+            logger.warn("Date picker selected '{}' instead of {}, selecting again month by month", selected, date);
+            clickButton(DatePickerPageSelector.txtDateDisable);
+            stepToMonth(localDate);
+            clickButton(DatePickerPageSelector.itmDatePickerDay(localDate.getDayOfMonth()));
+            waitForElementInvisible(DatePickerPageSelector.tblDatePicker);
+        }
+        logger.info("Date selected: {}", date);
+    }
 
-            if (displayedYear > localDate.getYear() || 
-                (displayedYear == localDate.getYear() && displayedMonth > localDate.getMonthValue())) {
+    /**
+     * Reads the displayed month once, then issues all Next/Prev clicks in a single script
+     * @param localDate Date whose month should be displayed
+     * @return true if the picker now displays the month of localDate
+     */
+    private boolean jumpToMonth(LocalDate localDate) {
+        try {
+            YearMonth displayed = readDisplayedMonth();
+            YearMonth target = YearMonth.from(localDate);
+            long delta = displayed.until(target, ChronoUnit.MONTHS);
+            if (delta == 0) {
+                return true;
+            }
+            Object title = executeJavaScript("jump_months", JUMP_MONTHS_SCRIPT, delta);
+            if (title instanceof String text && parseMonthTitle(text).equals(target)) {
+                logger.info("Jumped {} months to {}", delta, target);
+                return true;
+            }
+            logger.warn("Date picker shows '{}' after jumping {} months, expected {}", title, delta, target);
+        } catch (RuntimeException e) {
+            logger.warn("Direct month jump failed, stepping month by month: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Clicks Prev/Next one month at a time until the picker displays the month of localDate
+     * @param localDate Date whose month should be displayed
+     */
+    private void stepToMonth(LocalDate localDate) {
+        YearMonth target = YearMonth.from(localDate);
+        while (true) {
+            YearMonth displayed = readDisplayedMonth();
+            if (displayed.isAfter(target)) {
                 clickButton(DatePickerPageSelector.btnPrevMonth);
-            } else if (displayedYear < localDate.getYear() || displayedMonth < localDate.getMonthValue()) {
+            } else if (displayed.isBefore(target)) {
                 clickButton(DatePickerPageSelector.btnNextMonth);
             } else {
                 break;
             }
         }
-        // Select the day
-        clickButton(DatePickerPageSelector.itmDatePickerDay(localDate.getDayOfMonth()));
-        waitForElementInvisible(DatePickerPageSelector.tblDatePicker);
-        logger.info("Date selected: {}", date);
+    }
+
+    private YearMonth readDisplayedMonth() {
+        return parseMonthTitle(getElementText(DatePickerPageSelector.lblMonthYear));
+    }
+
+    private YearMonth parseMonthTitle(String title) {
+        String[] monthYear = title.split(" ");
+        return YearMonth.of(Integer.parseInt(monthYear[1]), convertMonthNameToNumber(monthYear[0]));
     }
 
     
     public void verifySelectedDateDisable(String date) {
         logger.info("Verifying selected date is disabled: {}", date);
-       String crrDate = getElementValue(DatePickerPageSelector.txtDateDisable);
-       verifyEquals(date, crrDate, String.format("The date %s is not disabled as expected, current date is %s", date, crrDate));
+        // The selected value and the closed calendar are read in one round trip
+        ElementSnapshot snapshot = readElementsWhenVisible(DatePickerPageSelector.txtDateDisable,
+                List.of(DatePickerPageSelector.txtDateDisable, DatePickerPageSelector.tblDatePicker),
+                EnumSet.of(ElementSnapshot.Field.VALUE, ElementSnapshot.Field.VISIBLE));
+        String crrDate = snapshot.getValue(DatePickerPageSelector.txtDateDisable);
+        verifyEquals(date, crrDate, String.format("The date %s is not disabled as expected, current date is %s", date, crrDate));
+        verifyFalse(snapshot.isVisible(DatePickerPageSelector.tblDatePicker), "The date picker is still open after selecting " + date);
     }
 }
\ No newline at end of file
@@ -3,32 +3,37 @@ package pages.guru;
 import org.openqa.selenium.By;
 
 import core.BasePage;
+import core.Locators;
 import utils.Constants;
 
 
 class DragDropSelector {
+    private static final Locators.Template AMOUNT = Locators.template("(//a[contains(text(),'%s')])[last()]");
+    private static final Locators.Template CARD_AMOUNT = Locators.template("//td[h3[contains(text(), '%s')]]//div[@class='shoppingCart' and h3[contains(text(), 'Amount')]]//ol");
+    private static final Locators.Template CARD_ACCOUNT = Locators.template("//td[h3[contains(text(), '%s')]]//div[@class='shoppingCart' and h3[contains(text(), 'Account')]]//ol");
+    private static final Locators.Template CARD_AMOUNT_LABEL = Locators.template("//td[h3[contains(text(), '%s')]]//div[@class='shoppingCart' and h3[contains(text(), 'Amount')]]//li");
+
     public static By getAmountXpath(String amount) {
-        return By.xpath(String.format("(//a[contains(text(),'%s')])[last()]", amount));
+        return AMOUNT.with(amount);
     }
 
     public static By areCardAmount(String cardType) {
-        return By.xpath(String.format("//td[h3[contains(text(), '%s')]]//div[@class='shoppingCart' and h3[contains(text(), 'Amount')]]//ol", cardType));
+        return CARD_AMOUNT.with(cardType);
     }
 
     public static By areCardAccount(String cardType) {
-        return By.xpath(String.format("//td[h3[contains(text(), '%s')]]//div[@class='shoppingCart' and h3[contains(text(), 'Account')]]//ol", cardType));
+        return CARD_ACCOUNT.with(cardType);
     }
 
     public static By lblAmountInCard(String cardType) {
-        return By.xpath(String.format("//td[h3[contains(text(), '%s')]]//div[@class='shoppingCart' and h3[contains(text(), 'Amount')]]//li", cardType));
+        return CARD_AMOUNT_LABEL.with(cardType);
     }
 }
 
 public class DragDropPage extends BasePage {
 
     public DragDropPage() {
-        super();
-        openSite(Constants.GURU99_DRAG_DROP_URL);
+        super(Constants.GURU99_DRAG_DROP_URL);
     }
 
     public void dragDropAmountToCardType(String amount, String cardType) {
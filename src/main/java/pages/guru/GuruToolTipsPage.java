@@ -3,17 +3,18 @@ package pages.guru;
 import org.openqa.selenium.By;
 
 import core.BasePage;
+import core.Locators;
+import utils.Constants;
 
 class GuruToolTipsPageSelector {
     public static final By btnDownloadNow = By.id("download_now");
-    public static final By imgEyes = By.xpath("//img[@src='img/eye.png']");
+    public static final By imgEyes = Locators.xpath("//img[@src='img/eye.png']");
 }
 
 public class GuruToolTipsPage extends BasePage {
 
     public GuruToolTipsPage() {
-        super();
-        openSite("https://demo.guru99.com/test/tooltip.html");
+        super(Constants.GURU99_TOOLTIPS_URL);
     }
     
     public void hoverToDownloadNowButton() {
@@ -1,13 +1,14 @@
 package pages.guru;
 
 import core.BasePage;
+import core.Locators;
 import org.openqa.selenium.By;
 
 
 class LoginPageSelector {
     public static final By txtUsernameId = By.name("emailid");
     public static final By btnSubmit = By.name("btnLogin");
-    public static final By lblEmailMessage = By.xpath("//td[input[@name='emailid']]/label");
+    public static final By lblEmailMessage = Locators.xpath("//td[input[@name='emailid']]/label");
 }
 
 public class LoginPage extends BasePage {
@@ -23,6 +23,14 @@ public final class Constants {
     public static final String ERROR_LOG = Paths.get(LOG_DIR, "errors.log").toString();
     public static final String TEST_LOG = Paths.get(LOG_DIR, "test-execution.log").toString();
 
+    // Report Path Constants
+    public static final String REPORTS_DIR = Paths.get(PROJECT_ROOT_PATH, "target", "reports").toString();
+    public static final String FAILURE_ARTIFACTS_DIR = Paths.get(PROJECT_ROOT_PATH, "target", "failure-artifacts").toString();
+    public static final String SHARD_PLAN_PATH = Paths.get(PROJECT_ROOT_PATH, "target", "shard-plan.properties").toString();
+
+    // Driver Binary Cache Constants
+    public static final String DRIVER_CACHE_PATH = Paths.get(PROJECT_ROOT_PATH, ".selenium-cache", "drivers.properties").toString();
+
     // GURU99 Site Constants
     public static final String GURU99_BASE_URL = "https://demo.guru99.com";
     public static final String GURU99_TOOLTIPS_URL = GURU99_BASE_URL + "/test/tooltip.html";
@@ -35,5 +43,6 @@ public final class Constants {
     // Upload File Constants
     public static final String SAMPLE_FILE_PATH = Paths.get(RESOURCES_PATH, "sample.jpg").toString();
     public static final String CURRENT_USERNAME = System.getProperty("user.name");
-    public static final String DOWNLOAD_FOLDER_PATH = "/"+Paths.get("","Users", CURRENT_USERNAME,"Downloads").toString();
+    /** Root folder of the per-session download directories created by DriverManager */
+    public static final String DOWNLOAD_FOLDER_PATH = Paths.get(PROJECT_ROOT_PATH, "target", "downloads").toString();
 }
@@ -0,0 +1,177 @@
+package utils;
+
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static utils.Constants.CSV_DELIMITER;
+
+/**
+ * CsvRowReader streams the rows of a CSV file through a memory-mapped window, so a file with hundreds of
+ * thousands of rows is never loaded into the heap. Record boundaries are found by scanning bytes for line
+ * breaks outside quotes; only the records of the requested partition are decoded and parsed, the others
+ * are skipped at byte level.
+ */
+public final class CsvRowReader implements Iterator<String[]>, Closeable {
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final CSVParser parser;
+    private final int partitionIndex;
+    private final int partitionCount;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+    private final String[] header;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private long rowIndex;
+    private String[] next;
+
+    private CsvRowReader(Path file, int partitionIndex, int partitionCount) throws IOException {
+        if (partitionCount < 1 || partitionIndex < 0 || partitionIndex >= partitionCount) {
+            throw new IllegalArgumentException("Invalid partition " + partitionIndex + " of " + partitionCount);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.parser = new CSVParserBuilder().withSeparator(CSV_DELIMITER.charAt(0)).build();
+        this.partitionIndex = partitionIndex;
+        this.partitionCount = partitionCount;
+        skipByteOrderMark();
+        this.header = readRecord(true) ? parser.parseLine(decodeRecord()) : new String[0];
+    }
+
+    /**
+     * Opens a CSV file and reads its header row
+     * @param file CSV file with a header row
+     * @param partitionIndex 0-based partition to read
+     * @param partitionCount Number of partitions rows are dealt to round-robin
+     * @return CsvRowReader positioned at the first data row of the partition
+     * @throws IOException if the file cannot be opened
+     */
+    public static CsvRowReader open(Path file, int partitionIndex, int partitionCount) throws IOException {
+        return new CsvRowReader(file, partitionIndex, partitionCount);
+    }
+
+    /**
+     * Gets the header row
+     * @return Column names in file order
+     */
+    public String[] getHeader() {
+        return header.clone();
+    }
+
+    /**
+     * Streams the remaining rows of the partition; closing the stream closes the file
+     * @return Lazy stream of parsed rows
+     */
+    public Stream<String[]> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            while (true) {
+                boolean keep = rowIndex % partitionCount == partitionIndex;
+                if (!readRecord(keep)) {
+                    return false;
+                }
+                rowIndex++;
+                if (keep) {
+                    // Blank lines, LF or CRLF, are not rows
+                    String line = decodeRecord();
+                    if (!line.isEmpty()) {
+                        next = parser.parseLine(line);
+                        return true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Advances past the next record, copying its bytes into {@link #record} if it is kept
+     * @param keep Whether the record bytes are needed
+     * @return false at the end of the file
+     */
+    private boolean readRecord(boolean keep) throws IOException {
+        record.reset();
+        if (position >= size) {
+            return false;
+        }
+        boolean quoted = false;
+        while (position < size) {
+            byte b = byteAt(position++);
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                break;
+            }
+            if (keep) {
+                record.write(b);
+            }
+        }
+        return true;
+    }
+
+    private String decodeRecord() {
+        String line = record.toString(StandardCharsets.UTF_8);
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    private byte byteAt(long offset) throws IOException {
+        if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+            windowStart = offset;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, size - offset));
+        }
+        return window.get((int) (offset - windowStart));
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        if (size >= 3 && byteAt(0) == (byte) 0xEF && byteAt(1) == (byte) 0xBB && byteAt(2) == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+}
@@ -2,14 +2,23 @@ package utils;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.json.JSONObject;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 
 import static utils.Constants.DOWNLOAD_FOLDER_PATH;
 
@@ -24,18 +33,16 @@ public class Helper {
             throw new RuntimeException("Environment configuration failed", e);
         }
     }
+
     /**
-     * Load JSON file and store as JSONObject or JSONArray
-     * @param filePath path to JSON file
+     * Reports a problem from a shutdown hook, e.g. a report that could not be written when the fork exits.
+     * Shutdown hooks print to stderr instead of using the logger: log4j2 stops its logger context in a
+     * shutdown hook of its own, and hooks run concurrently, so messages logged from another hook can be lost.
+     * Reports themselves go to files only; this is for failures nobody would otherwise notice.
+     * @param message Message to print
      */
-    public static JSONObject loadJsonFile(String filePath) {
-        try {
-            String content = Files.readString(Paths.get(filePath), StandardCharsets.UTF_8);
-            return new JSONObject(content);
-        } catch (Exception e) {
-            logger.error("Failed to load JSON file: {}", filePath, e);
-            return null;
-        }
+    public static void shutdownMessage(String message) {
+        System.err.println(message);
     }
     public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy", Locale.US);
 
@@ -67,29 +74,68 @@ public class Helper {
         }
     }
 
-    private void waitForFileExists(String filePath, int timeoutInSeconds) {
+    /** Suffixes browsers use for files that are still being downloaded (Chrome/Edge, Firefox) */
+    private static final List<String> PARTIAL_DOWNLOAD_SUFFIXES = List.of(".crdownload", ".part");
+
+    /**
+     * Waits until a file is completely written to a directory. Blocks on a WatchService and re-checks
+     * on every directory change, so it returns as soon as the browser finishes the download.
+     * @param directory Directory the file is written to
+     * @param fileName Name of the expected file
+     * @param timeoutInSeconds Maximum time to wait
+     */
+    private void waitForFileExists(Path directory, String fileName, int timeoutInSeconds) {
+        Path filePath = directory.resolve(fileName);
         logger.info("Waiting for file to exist: {} with timeout: {} seconds", filePath, timeoutInSeconds);
-        int waited = 0;
-        while (waited < timeoutInSeconds) {
-            if (Files.exists(Paths.get(filePath))) {
-                logger.info("File found: {}", filePath);
-                return;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutInSeconds);
+
+        try {
+            Files.createDirectories(directory);
+            try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+                directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                // Checked after registering so a download finishing in between is not missed
+                while (!isDownloadComplete(filePath)) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        logger.warn("Timeout reached. File not found: {}", filePath);
+                        throw new RuntimeException("File not found within timeout: " + filePath);
+                    }
+                    WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (key != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                }
             }
-            try {
-//                Sleep 1 second before next check
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                logger.error("Thread interrupted while waiting for file: {}", filePath, e);
+        } catch (IOException e) {
+            logger.error("Failed to watch directory: {}", directory, e);
+            throw new RuntimeException("Failed to watch directory: " + directory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Thread interrupted while waiting for file: {}", filePath, e);
+            throw new RuntimeException("Interrupted while waiting for file: " + filePath, e);
+        }
+        logger.info("File found: {}", filePath);
+    }
+
+    private static boolean isDownloadComplete(Path filePath) {
+        if (!Files.isRegularFile(filePath)) {
+            return false;
+        }
+        for (String suffix : PARTIAL_DOWNLOAD_SUFFIXES) {
+            if (Files.exists(filePath.resolveSibling(filePath.getFileName() + suffix))) {
+                return false;
             }
-            waited++;
         }
-        logger.warn("Timeout reached. File not found: {}", filePath);
-        throw new RuntimeException("File not found within timeout: " + filePath);
+        return true;
     }
 
     public void waitForFileDownload(String fileName, int timeoutInSeconds) {
+        waitForFileDownload(Paths.get(DOWNLOAD_FOLDER_PATH), fileName, timeoutInSeconds);
+    }
+
+    public void waitForFileDownload(Path downloadDir, String fileName, int timeoutInSeconds) {
         logger.info("Waiting for file download: {} with timeout: {} seconds", fileName, timeoutInSeconds);
-        String downloadedFilePath = Paths.get(DOWNLOAD_FOLDER_PATH, fileName).toString();
-        waitForFileExists(downloadedFilePath, timeoutInSeconds);
+        waitForFileExists(downloadDir, fileName, timeoutInSeconds);
     }
 }
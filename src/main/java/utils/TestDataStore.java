@@ -0,0 +1,288 @@
+package utils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestDataStore gives access to large JSON test data files without parsing them up front. Opening a file
+ * scans its bytes once (memory-mapped, nothing materialized) and indexes the byte ranges of the top-level
+ * keys (environments) and of their keys. A value is only parsed with org.json when it is first requested,
+ * and is then cached for the lifetime of the JVM. Stores are cached per file, so several data files can be
+ * used side by side and each is indexed once per fork.
+ *
+ * Usage:
+ * - TestDataStore.of(JSON_DATA_PATH).getString("GURU", "base_url")
+ * - TestDataStore.of(JSON_DATA_PATH).getObject("GURU")
+ */
+public final class TestDataStore extends Helper {
+    /** Objects nested up to this depth are indexed by key (1 = top-level keys, 2 = their keys) */
+    private static final int INDEX_DEPTH = 2;
+
+    private static final Map<Path, TestDataStore> STORES = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final MappedByteBuffer bytes;
+    private final Segment root;
+    private final Map<String, Object> materialized = new ConcurrentHashMap<>();
+    private int position;
+
+    /**
+     * Byte range of a JSON value, with the ranges of its keys if it is an indexed object
+     */
+    private record Segment(int start, int end, Map<String, Segment> children) {
+    }
+
+    private TestDataStore(Path file) throws IOException {
+        super();
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Test data file " + file + " is larger than 2 GB");
+            }
+            this.bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        long start = System.nanoTime();
+        skipWhitespace();
+        this.root = scanValue(0);
+        logger.debug("Indexed {} top-level keys of {} in {} ms", keys().size(), file, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Gets the store of a data file, indexing the file on first use
+     * @param filePath Path of the JSON data file
+     * @return TestDataStore shared by all callers in this JVM
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static TestDataStore of(String filePath) {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        return STORES.computeIfAbsent(path, p -> {
+            try {
+                return new TestDataStore(p);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to index test data file " + p, e);
+            }
+        });
+    }
+
+    /**
+     * Gets the top-level keys (environments) of the file
+     * @return Keys in file order
+     */
+    public Set<String> keys() {
+        return root.children() == null ? Set.of() : Collections.unmodifiableSet(root.children().keySet());
+    }
+
+    /**
+     * Gets the keys of a top-level object
+     * @param key Top-level key
+     * @return Keys in file order
+     */
+    public Set<String> keys(String key) {
+        Segment segment = segment(key);
+        return segment.children() == null ? Set.of() : Collections.unmodifiableSet(segment.children().keySet());
+    }
+
+    /**
+     * Checks whether a path of keys exists in the indexed part of the file
+     * @param path Top-level key, optionally followed by a key of that object
+     * @return true if the value exists
+     */
+    public boolean has(String... path) {
+        Segment segment = root;
+        for (String key : path) {
+            if (segment.children() == null || !segment.children().containsKey(key)) {
+                return false;
+            }
+            segment = segment.children().get(key);
+        }
+        return true;
+    }
+
+    /**
+     * Gets a value, parsing only its subtree on first access
+     * @param path Top-level key, optionally followed by a key of that object
+     * @return JSONObject, JSONArray, String, Number, Boolean or JSONObject.NULL
+     * @throws IllegalArgumentException if the path does not exist
+     */
+    public Object get(String... path) {
+        return materialized.computeIfAbsent(String.join("\u0000", path), k -> materialize(segment(path)));
+    }
+
+    public JSONObject getObject(String... path) {
+        return (JSONObject) get(path);
+    }
+
+    public JSONArray getArray(String... path) {
+        return (JSONArray) get(path);
+    }
+
+    /**
+     * Gets a value as text
+     * @param path Top-level key, optionally followed by a key of that object
+     * @return The value as a string, or null for a JSON null
+     * @throws IllegalArgumentException if the path does not exist
+     */
+    public String getString(String... path) {
+        Object value = get(path);
+        return JSONObject.NULL.equals(value) ? null : String.valueOf(value);
+    }
+
+    private Segment segment(String... path) {
+        Segment segment = root;
+        for (String key : path) {
+            Segment child = segment.children() == null ? null : segment.children().get(key);
+            if (child == null) {
+                throw new IllegalArgumentException("No test data at " + String.join(".", path) + " in " + file);
+            }
+            segment = child;
+        }
+        return segment;
+    }
+
+    private Object materialize(Segment segment) {
+        byte[] value = new byte[segment.end() - segment.start()];
+        bytes.slice(segment.start(), value.length).get(value);
+        return new JSONTokener(new String(value, StandardCharsets.UTF_8)).nextValue();
+    }
+
+    /**
+     * Advances past the value at the current position and returns its byte range. Objects at depth below
+     * INDEX_DEPTH record the ranges of their keys; everything deeper is only skipped.
+     */
+    private Segment scanValue(int depth) {
+        int start = position;
+        byte first = peek();
+        Map<String, Segment> children = null;
+        if (first == '{') {
+            children = depth < INDEX_DEPTH ? new LinkedHashMap<>() : null;
+            position++;
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+            } else {
+                while (true) {
+                    skipWhitespace();
+                    String key = readString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    Segment value = scanValue(depth + 1);
+                    if (children != null) {
+                        children.put(key, value);
+                    }
+                    skipWhitespace();
+                    if (separatorOrEnd('}')) {
+                        break;
+                    }
+                }
+            }
+        } else if (first == '[') {
+            position++;
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+            } else {
+                while (true) {
+                    skipWhitespace();
+                    scanValue(INDEX_DEPTH);
+                    skipWhitespace();
+                    if (separatorOrEnd(']')) {
+                        break;
+                    }
+                }
+            }
+        } else if (first == '"') {
+            skipString();
+        } else {
+            while (position < bytes.limit() && ",}] \t\r\n".indexOf(bytes.get(position)) < 0) {
+                position++;
+            }
+        }
+        return new Segment(start, position, children);
+    }
+
+    private String readString() {
+        int start = position;
+        skipString();
+        String raw = new String(slice(start, position), StandardCharsets.UTF_8);
+        return raw.indexOf('\\') < 0 ? raw.substring(1, raw.length() - 1) : (String) new JSONTokener(raw).nextValue();
+    }
+
+    private void skipString() {
+        expect('"');
+        while (true) {
+            byte b = next();
+            if (b == '\\') {
+                position++;
+            } else if (b == '"') {
+                return;
+            }
+        }
+    }
+
+    private byte[] slice(int start, int end) {
+        byte[] value = new byte[end - start];
+        bytes.slice(start, value.length).get(value);
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (position < bytes.limit() && Character.isWhitespace(bytes.get(position))) {
+            position++;
+        }
+    }
+
+    private byte peek() {
+        if (position >= bytes.limit()) {
+            throw syntaxError("Unexpected end of file");
+        }
+        return bytes.get(position);
+    }
+
+    private byte next() {
+        byte b = peek();
+        position++;
+        return b;
+    }
+
+    /**
+     * Consumes the byte after a member or element
+     * @param closing Closing bracket of the enclosing object or array
+     * @return true at the closing bracket, false at a comma
+     */
+    private boolean separatorOrEnd(char closing) {
+        byte b = next();
+        if (b == closing) {
+            return true;
+        }
+        if (b != ',') {
+            throw syntaxError("Expected ',' or '" + closing + "'");
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    private IllegalStateException syntaxError(String message) {
+        return new IllegalStateException(message + " at byte " + position + " of " + file);
+    }
+}
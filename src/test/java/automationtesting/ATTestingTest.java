@@ -6,9 +6,9 @@ import java.sql.DriverManager;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
-import org.junit.jupiter.api.Test;
 
 import core.BaseTest;
+import core.RetryingTest;
 import pages.automation_demo.AlertPage;
 import pages.automation_demo.DatePickerPage;
 
@@ -25,7 +25,7 @@ public class ATTestingTest extends BaseTest {
          alertPage = new AlertPage();
      }
 
-     @Test
+     @RetryingTest
      @Tag("automationtesting")
      public void alertWithOK() {
          /**
@@ -38,7 +38,7 @@ public class ATTestingTest extends BaseTest {
          alertPage.acceptAlert();
      }
 
-     @Test
+     @RetryingTest
      @Tag("automationtesting")
      public void alertWithOKCancel() {
          /**
@@ -57,7 +57,7 @@ public class ATTestingTest extends BaseTest {
          alertPage.verifyAlertDismissedMessage("You Pressed Cancel");
      }
 
-     @Test
+     @RetryingTest
      @Tag("automationtesting")
      public void testSwitchWindow01() {
          logger.info("Automation Testing - Alert with OK & Cancel tab");
@@ -71,7 +71,7 @@ public class ATTestingTest extends BaseTest {
      }
 
 
-    @Test
+    @RetryingTest
     @Tag("automationtesting")
     public void testDataPickerDisable() {
         String dateToSelect = "02/10/2026";
@@ -84,7 +84,7 @@ public class ATTestingTest extends BaseTest {
         datePickerPage.verifySelectedDateDisable(dateToSelect);
     }
 
-    @Test
+    @RetryingTest
     @Tag("automationtesting")
     public void testUploadFile() {
         logger.info("Automation Testing - File Upload Test");
@@ -99,7 +99,7 @@ public class ATTestingTest extends BaseTest {
     }
 
 
-    @Test
+    @RetryingTest
     @Tag("automationtesting")
     public void testDownloadFile() {
          String expectedContent = "This is a sample text file for download testing.";
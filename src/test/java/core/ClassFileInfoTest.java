@@ -0,0 +1,63 @@
+package core;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for reading class references and source files with {@link ClassFileInfo}
+ */
+public class ClassFileInfoTest {
+
+    /** Refers to Duration only in a field descriptor and to Pattern only in a method descriptor */
+    @SuppressWarnings("unused")
+    static class Sample {
+        private Duration timeout;
+
+        String describe(Pattern pattern) {
+            return new StringBuilder().append(pattern).toString();
+        }
+    }
+
+    @Test
+    @Tag("unit")
+    public void readsClassNameAndSourcePath() throws IOException {
+        ClassFileInfo info = read(Sample.class);
+        assertEquals(Sample.class.getName(), info.className());
+        assertEquals("core/ClassFileInfoTest.java", info.sourceFile());
+    }
+
+    @Test
+    @Tag("unit")
+    public void readsReferencesFromConstantPoolAndDescriptors() throws IOException {
+        ClassFileInfo info = read(Sample.class);
+        assertTrue(info.referencedClasses().contains(StringBuilder.class.getName()));
+        assertTrue(info.referencedClasses().contains(Duration.class.getName()));
+        assertTrue(info.referencedClasses().contains(Pattern.class.getName()));
+        assertFalse(info.referencedClasses().contains(Sample.class.getName()));
+    }
+
+    @Test
+    @Tag("unit")
+    public void rejectsNonClassFiles() {
+        InputStream notAClass = new ByteArrayInputStream(new byte[] {'P', 'K', 3, 4, 0, 0, 0, 0});
+        assertThrows(IOException.class, () -> ClassFileInfo.read(notAClass));
+    }
+
+    private static ClassFileInfo read(Class<?> type) throws IOException {
+        String resource = "/" + type.getName().replace('.', '/') + ".class";
+        try (InputStream in = ClassFileInfoTest.class.getResourceAsStream(resource)) {
+            return ClassFileInfo.read(in);
+        }
+    }
+}
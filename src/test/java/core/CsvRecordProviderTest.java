@@ -0,0 +1,102 @@
+package core;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static utils.Constants.RESOURCES_PATH;
+
+/**
+ * Unit tests for splitting the rows of a {@link CsvRecordSource} between shards and forks with {@link CsvRecordProvider}
+ */
+public class CsvRecordProviderTest {
+    private static final Path ADDRESSES = Paths.get(RESOURCES_PATH, "addresses.csv");
+
+    record Address(int no, String city, String addressName) {
+    }
+
+    @Test
+    @Tag("unit")
+    public void numbersForksWithinTheirShard() {
+        assertEquals(new ShardSpec(1, 1), CsvRecordProvider.partitionOf(null, 1, 1));
+        assertEquals(new ShardSpec(2, 3), CsvRecordProvider.partitionOf(null, 2, 3));
+        assertEquals(new ShardSpec(2, 4), CsvRecordProvider.partitionOf(new ShardSpec(2, 4), 1, 1));
+        assertEquals(new ShardSpec(6, 12), CsvRecordProvider.partitionOf(new ShardSpec(2, 4), 3, 3));
+        assertEquals(new ShardSpec(12, 12), CsvRecordProvider.partitionOf(new ShardSpec(4, 4), 3, 3));
+    }
+
+    @Test
+    @Tag("unit")
+    public void forksOfAllShardsReadEveryRowOnce() throws Exception {
+        List<Integer> all = rowNumbers(new ShardSpec(1, 1));
+        assertTrue(all.size() > 6, "Expected enough rows to split, got " + all.size());
+
+        List<Integer> split = new ArrayList<>();
+        for (int shard = 1; shard <= 2; shard++) {
+            for (int fork = 1; fork <= 3; fork++) {
+                List<Integer> rows = rowNumbers(CsvRecordProvider.partitionOf(new ShardSpec(shard, 2), fork, 3));
+                assertFalse(rows.isEmpty(), "Shard " + shard + " fork " + fork + " got no rows");
+                split.addAll(rows);
+            }
+        }
+        assertEquals(all.size(), split.size());
+        assertEquals(new HashSet<>(all), Set.copyOf(split));
+    }
+
+    @Test
+    @Tag("unit")
+    public void mapsRowsOfAPartitionToRecords() throws Exception {
+        List<Address> addresses;
+        try (Stream<? extends Arguments> arguments = new CsvRecordProvider().provideArguments(context(), ADDRESSES, new ShardSpec(2, 3))) {
+            addresses = arguments.map(argument -> (Address) argument.get()[0]).toList();
+        }
+        assertEquals(2, addresses.get(0).no());
+        assertEquals("Redding", addresses.get(0).city());
+        assertEquals("Mercy Medical Center Redding", addresses.get(0).addressName());
+        assertEquals(5, addresses.get(1).no());
+    }
+
+    private static List<Integer> rowNumbers(ShardSpec partition) throws IOException {
+        try (Stream<? extends Arguments> arguments = new CsvRecordProvider().provideArguments(context(), ADDRESSES, partition)) {
+            return arguments.map(argument -> ((Address) argument.get()[0]).no()).toList();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private void address(Address address) {
+    }
+
+    /**
+     * ExtensionContext double whose test method takes an Address
+     */
+    private static ExtensionContext context() {
+        Method method;
+        try {
+            method = CsvRecordProviderTest.class.getDeclaredMethod("address", Address.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        return (ExtensionContext) Proxy.newProxyInstance(CsvRecordProviderTest.class.getClassLoader(),
+                new Class<?>[] {ExtensionContext.class}, (proxy, invoked, args) -> switch (invoked.getName()) {
+                    case "getRequiredTestMethod" -> method;
+                    case "getTestMethod" -> Optional.of(method);
+                    default -> throw new UnsupportedOperationException(invoked.getName());
+                });
+    }
+}
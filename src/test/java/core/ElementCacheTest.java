@@ -0,0 +1,112 @@
+package core;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for reusing and re-resolving element references with {@link ElementCache}
+ */
+public class ElementCacheTest {
+    private static final By TITLE = By.className("ui-datepicker-title");
+
+    @Test
+    @Tag("unit")
+    public void reusesResolvedElementsUntilInvalidated() {
+        List<WebElement> resolved = new ArrayList<>();
+        Function<By, WebElement> resolver = selector -> add(resolved, element("May 2026", false));
+        ElementCache cache = new ElementCache("CachePage");
+
+        WebElement first = cache.get(TITLE, resolver);
+        assertSame(first, cache.get(TITLE, resolver));
+        assertEquals(1, resolved.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.invalidate();
+        cache.get(TITLE, resolver);
+        assertEquals(2, resolved.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @Tag("unit")
+    public void reResolvesStaleElementOnce() {
+        List<WebElement> resolved = new ArrayList<>();
+        List<WebElement> elements = List.of(element("May 2026", true), element("June 2026", false));
+        ElementCache cache = new ElementCache("CachePage");
+
+        String text = cache.apply(TITLE, selector -> add(resolved, elements.get(resolved.size())), WebElement::getText);
+
+        assertEquals("June 2026", text);
+        assertEquals(2, resolved.size());
+        assertEquals(1, cache.getStaleCount());
+        assertSame(elements.get(1), cache.get(TITLE, selector -> {
+            throw new AssertionError("Re-resolved element should be cached");
+        }));
+    }
+
+    @Test
+    @Tag("unit")
+    public void givesUpWhenTheReResolvedElementIsStaleToo() {
+        ElementCache cache = new ElementCache("CachePage");
+        assertThrows(StaleElementReferenceException.class,
+                () -> cache.apply(TITLE, selector -> element("May 2026", true), WebElement::getText));
+        assertEquals(1, cache.getStaleCount());
+    }
+
+    @Test
+    @Tag("unit")
+    public void recordsHitsAndMissesPerPage() {
+        ElementCache cache = new ElementCache("MetricsCachePage");
+        cache.get(TITLE, selector -> element("May 2026", false));
+        cache.get(TITLE, selector -> element("May 2026", false));
+        cache.get(TITLE, selector -> element("May 2026", false));
+
+        assertEquals(2, count("MetricsCachePage", "element_cache_hit"));
+        assertEquals(1, count("MetricsCachePage", "element_cache_miss"));
+    }
+
+    private static long count(String page, String action) {
+        ActionMetrics.Histogram histogram = ActionMetrics.snapshot().get(new ActionMetrics.Key(page, action, ""));
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    private static WebElement add(List<WebElement> resolved, WebElement element) {
+        resolved.add(element);
+        return element;
+    }
+
+    /**
+     * WebElement double whose getText returns text, or throws StaleElementReferenceException if stale
+     */
+    private static WebElement element(String text, boolean stale) {
+        return (WebElement) Proxy.newProxyInstance(ElementCacheTest.class.getClassLoader(), new Class<?>[] {WebElement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getText")) {
+                        if (stale) {
+                            throw new StaleElementReferenceException("Element is no longer attached to the DOM");
+                        }
+                        return text;
+                    }
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,117 @@
+package core;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for mapping the single-script read of {@link ElementSnapshot} to element states
+ */
+public class ElementSnapshotTest {
+    private static final By TITLE = By.id("title");
+    private static final By PRICE = By.cssSelector(".price");
+    private static final By MISSING = By.name("missing");
+
+    @Test
+    @Tag("unit")
+    public void mapsScriptRowsToStatesInOneRoundTrip() {
+        Map<String, Object> title = new HashMap<>(Map.of("present", true, "visible", true, "text", "Checkout",
+                "attributes", new HashMap<>(Map.of("class", "header"))));
+        Map<String, Object> price = new HashMap<>(Map.of("present", true, "visible", false, "value", "12.50"));
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("class", null);
+        price.put("attributes", attributes);
+        ScriptDriver driver = new ScriptDriver(List.of(title, price, Map.of("present", false)));
+
+        ElementSnapshot snapshot = ElementSnapshot.read(driver.proxy(), List.of(TITLE, PRICE, MISSING),
+                EnumSet.of(ElementSnapshot.Field.TEXT, ElementSnapshot.Field.VALUE), List.of("class"));
+
+        assertEquals(1, driver.scripts);
+        assertEquals(List.of(List.of("id", "title"), List.of("css selector", ".price"), List.of("name", "missing")),
+                driver.arguments.get(0));
+        assertEquals(List.of("TEXT", "VALUE"), driver.arguments.get(1));
+        assertEquals(3, snapshot.size());
+
+        assertTrue(snapshot.isVisible(TITLE));
+        assertEquals("Checkout", snapshot.getText(TITLE));
+        assertEquals("header", snapshot.getAttribute(TITLE, "class"));
+        assertTrue(snapshot.isPresent(PRICE));
+        assertFalse(snapshot.isVisible(PRICE));
+        assertEquals("12.50", snapshot.getValue(PRICE));
+        assertNull(snapshot.getAttribute(PRICE, "class"));
+        assertFalse(snapshot.isPresent(MISSING));
+        assertNull(snapshot.getText(MISSING));
+    }
+
+    @Test
+    @Tag("unit")
+    public void rejectsLocatorsThatWereNotRead() {
+        ScriptDriver driver = new ScriptDriver(List.of(Map.of("present", false)));
+        ElementSnapshot snapshot = ElementSnapshot.read(driver.proxy(), List.of(TITLE),
+                EnumSet.of(ElementSnapshot.Field.TEXT), List.of());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getText(PRICE));
+    }
+
+    @Test
+    @Tag("unit")
+    public void readsNonRemotableLocatorsThroughWebDriver() {
+        By custom = new By() {
+            @Override
+            public List<WebElement> findElements(SearchContext context) {
+                return List.of();
+            }
+        };
+        ScriptDriver driver = new ScriptDriver(List.of());
+        ElementSnapshot snapshot = ElementSnapshot.read(driver.proxy(), List.of(custom),
+                EnumSet.of(ElementSnapshot.Field.TEXT), List.of());
+        assertEquals(0, driver.scripts);
+        assertFalse(snapshot.isPresent(custom));
+    }
+
+    /**
+     * Driver double that answers every script with the given rows and finds no elements
+     */
+    private static final class ScriptDriver {
+        private final List<?> rows;
+        private final List<Object> arguments = new ArrayList<>();
+        private int scripts;
+
+        private ScriptDriver(List<?> rows) {
+            this.rows = rows;
+        }
+
+        private WebDriver proxy() {
+            return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "executeScript" -> {
+                                scripts++;
+                                arguments.addAll(List.of((Object[]) args[1]));
+                                return rows;
+                            }
+                            case "findElements" -> {
+                                return List.of();
+                            }
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+}
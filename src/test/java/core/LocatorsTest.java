@@ -0,0 +1,81 @@
+package core;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit tests for the XPath-to-CSS rewriting and caching of {@link Locators}
+ */
+public class LocatorsTest {
+
+    @Test
+    @Tag("unit")
+    public void translatesDescendantAndChildSteps() {
+        assertEquals("div > p", Locators.toCss("//div/p"));
+        assertEquals("table a", Locators.toCss("//table//a"));
+        assertEquals("*", Locators.toCss("//*"));
+    }
+
+    @Test
+    @Tag("unit")
+    public void translatesAttributePredicates() {
+        assertEquals("a[title='Next']", Locators.toCss("//a[@title='Next']"));
+        assertEquals("div[id='CancelTab'] > p", Locators.toCss("//div[@id='CancelTab']/p"));
+        assertEquals("input[disabled]", Locators.toCss("//input[@disabled]"));
+        assertEquals("a[href='#Textbox']", Locators.toCss("//a[@href=\"#Textbox\"]"));
+        assertEquals("span[title='it\\'s']", Locators.toCss("//span[@title=\"it's\"]"));
+    }
+
+    @Test
+    @Tag("unit")
+    public void translatesAttributeFunctionsAndConjunctions() {
+        assertEquals("div[class*='card']", Locators.toCss("//div[contains(@class, 'card')]"));
+        assertEquals("a[href^='https']", Locators.toCss("//a[starts-with(@href, 'https')]"));
+        assertEquals("input[type='text'][name]", Locators.toCss("//input[@type='text' and @name]"));
+    }
+
+    @Test
+    @Tag("unit")
+    public void translatesLeadingPositionOnNamedElement() {
+        assertEquals("li:nth-of-type(2)", Locators.toCss("//li[2]"));
+        assertEquals("li:nth-of-type(2)[class='active']", Locators.toCss("//li[2][@class='active']"));
+    }
+
+    @Test
+    @Tag("unit")
+    public void rejectsExpressionsCssCannotMatchExactly() {
+        assertNull(Locators.toCss("//a[text()='Next']"));
+        assertNull(Locators.toCss("//div[span[contains(text(), 'Browse')]]/input"));
+        assertNull(Locators.toCss("//li[last()]"));
+        assertNull(Locators.toCss("(//div[@class='kv-file-content']//img)[1]"));
+        assertNull(Locators.toCss("//*[2]"));
+        assertNull(Locators.toCss("//li[@class='active'][2]"));
+        assertNull(Locators.toCss("//div[contains(@class, '')]"));
+        assertNull(Locators.toCss("//div/.."));
+        assertNull(Locators.toCss("//a[@title='Next' or @title='Prev']"));
+        assertNull(Locators.toCss("div/p"));
+        assertNull(Locators.toCss("//div[@id='unclosed'"));
+    }
+
+    @Test
+    @Tag("unit")
+    public void xpathReturnsCachedCssOrXpathLocator() {
+        assertEquals(By.cssSelector("a[title='Prev']"), Locators.xpath("//a[@title='Prev']"));
+        assertEquals(By.xpath("//a[text()='Prev']"), Locators.xpath("//a[text()='Prev']"));
+        assertSame(Locators.xpath("//a[@title='Prev']"), Locators.xpath("//a[@title='Prev']"));
+    }
+
+    @Test
+    @Tag("unit")
+    public void templateCachesLocatorPerArgumentList() {
+        Locators.Template template = Locators.template("//td[@data-day='%d']");
+        assertSame(template, Locators.template("//td[@data-day='%d']"));
+        assertEquals(By.cssSelector("td[data-day='5']"), template.with(5));
+        assertSame(template.with(5), template.with(5));
+    }
+}
@@ -0,0 +1,94 @@
+package core;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the percentiles, budget checks and cross-fork report of {@link PagePerformance}
+ */
+public class PagePerformanceTest {
+
+    @TempDir
+    Path directory;
+
+    @PerformanceBudget(lcpMs = 2500, cls = 0.1)
+    private static final class BudgetedPage {
+    }
+
+    @Test
+    @Tag("unit")
+    public void takesNearestRankPercentiles() {
+        double[] sorted = {10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+        assertEquals(50, PagePerformance.percentile(sorted, 0.50));
+        assertEquals(80, PagePerformance.percentile(sorted, 0.75));
+        assertEquals(100, PagePerformance.percentile(sorted, 0.95));
+        assertEquals(10, PagePerformance.percentile(sorted, 0.0));
+        assertEquals(7, PagePerformance.percentile(new double[] {7}, 0.95));
+    }
+
+    @Test
+    @Tag("unit")
+    public void reportsOnlyExceededLimits() {
+        PerformanceBudget budget = BudgetedPage.class.getAnnotation(PerformanceBudget.class);
+        Map<PagePerformance.Metric, Double> sample = new EnumMap<>(PagePerformance.Metric.class);
+        sample.put(PagePerformance.Metric.LCP, 3120.0);
+        sample.put(PagePerformance.Metric.CLS, 0.05);
+        // No limit is declared for the load time
+        sample.put(PagePerformance.Metric.LOAD, 90_000.0);
+
+        assertEquals(List.of("lcp_ms 3120.000 > 2500.000"), PagePerformance.violations(budget, sample));
+
+        sample.put(PagePerformance.Metric.LCP, 2500.0);
+        assertTrue(PagePerformance.violations(budget, sample).isEmpty());
+    }
+
+    @Test
+    @Tag("unit")
+    public void aggregatesRawSamplesOfAllForks() throws IOException {
+        // The median of the merged samples is 30; the medians of the two forks are 20 and 45
+        write("samples-101.jsonl", sample("https://demo/a", 10, false), sample("https://demo/a", 20, false),
+                sample("https://demo/a", 30, true));
+        write("samples-202.jsonl", sample("https://demo/a", 40, false), sample("https://demo/a", 50, false),
+                sample("https://demo/b", 5, false));
+
+        JSONObject report = PagePerformance.aggregate(directory);
+
+        assertEquals(2, report.getInt("forks"));
+        assertEquals(2, report.getJSONArray("pages").length());
+        JSONObject first = report.getJSONArray("pages").getJSONObject(0);
+        assertEquals("https://demo/a", first.getString("url"));
+        assertEquals(5, first.getInt("loads"));
+        assertEquals(1, first.getInt("budget_violations"));
+        JSONObject lcp = first.getJSONObject("metrics").getJSONObject("lcp_ms");
+        assertEquals(5, lcp.getInt("count"));
+        assertEquals(30, lcp.getDouble("p50"));
+        assertEquals(50, lcp.getDouble("max"));
+        assertFalse(first.getJSONObject("metrics").has("fcp_ms"), "Metrics without samples are left out");
+    }
+
+    private static String sample(String url, double lcp, boolean violated) {
+        return new JSONObject()
+                .put("url", url)
+                .put("violated", violated)
+                .put("metrics", new JSONObject().put("lcp_ms", lcp))
+                .toString();
+    }
+
+    private void write(String name, String... lines) throws IOException {
+        Files.write(directory.resolve(name), List.of(lines), StandardCharsets.UTF_8);
+    }
+}
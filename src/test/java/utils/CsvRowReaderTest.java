@@ -0,0 +1,113 @@
+package utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for streaming and partitioning CSV rows with {@link CsvRowReader}
+ */
+public class CsvRowReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Tag("unit")
+    public void readsHeaderAndRows() throws IOException {
+        Path file = write("name,city\nAnn,Hanoi\nBao,Hue\n");
+        try (CsvRowReader reader = CsvRowReader.open(file, 0, 1)) {
+            assertArrayEquals(new String[] {"name", "city"}, reader.getHeader());
+            List<String[]> rows = reader.stream().toList();
+            assertEquals(2, rows.size());
+            assertArrayEquals(new String[] {"Ann", "Hanoi"}, rows.get(0));
+            assertArrayEquals(new String[] {"Bao", "Hue"}, rows.get(1));
+        }
+    }
+
+    @Test
+    @Tag("unit")
+    public void keepsLineBreaksInsideQuotes() throws IOException {
+        Path file = write("name,address\nAnn,\"12 Le Loi\nDistrict 1\"\nBao,\"3, Tran Phu\"\n");
+        try (CsvRowReader reader = CsvRowReader.open(file, 0, 1)) {
+            List<String[]> rows = reader.stream().toList();
+            assertEquals(2, rows.size());
+            assertArrayEquals(new String[] {"Ann", "12 Le Loi\nDistrict 1"}, rows.get(0));
+            assertArrayEquals(new String[] {"Bao", "3, Tran Phu"}, rows.get(1));
+        }
+    }
+
+    @Test
+    @Tag("unit")
+    public void handlesByteOrderMarkCrLfAndMissingFinalLineBreak() throws IOException {
+        Path file = directory.resolve("bom.csv");
+        byte[] content = "name,city\r\nAnn,Hanoi\r\n\r\nBao,Hue".getBytes(StandardCharsets.UTF_8);
+        byte[] withBom = new byte[content.length + 3];
+        withBom[0] = (byte) 0xEF;
+        withBom[1] = (byte) 0xBB;
+        withBom[2] = (byte) 0xBF;
+        System.arraycopy(content, 0, withBom, 3, content.length);
+        Files.write(file, withBom);
+        try (CsvRowReader reader = CsvRowReader.open(file, 0, 1)) {
+            assertArrayEquals(new String[] {"name", "city"}, reader.getHeader());
+            List<String[]> rows = reader.stream().toList();
+            assertEquals(2, rows.size());
+            assertArrayEquals(new String[] {"Ann", "Hanoi"}, rows.get(0));
+            assertArrayEquals(new String[] {"Bao", "Hue"}, rows.get(1));
+        }
+    }
+
+    @Test
+    @Tag("unit")
+    public void dealsRowsToPartitionsRoundRobin() throws IOException {
+        Path file = write("id\n0\n1\n2\n3\n4\n");
+        assertEquals(List.of("0", "3"), ids(file, 0, 3));
+        assertEquals(List.of("1", "4"), ids(file, 1, 3));
+        assertEquals(List.of("2"), ids(file, 2, 3));
+    }
+
+    @Test
+    @Tag("unit")
+    public void readsHeaderOnlyAndEmptyFiles() throws IOException {
+        try (CsvRowReader reader = CsvRowReader.open(write("id\n"), 0, 1)) {
+            assertArrayEquals(new String[] {"id"}, reader.getHeader());
+            assertEquals(0, reader.stream().count());
+        }
+        try (CsvRowReader reader = CsvRowReader.open(write(""), 0, 1)) {
+            assertEquals(0, reader.getHeader().length);
+            assertEquals(0, reader.stream().count());
+        }
+    }
+
+    @Test
+    @Tag("unit")
+    public void rejectsInvalidPartitions() throws IOException {
+        Path file = write("id\n0\n");
+        assertThrows(IllegalArgumentException.class, () -> CsvRowReader.open(file, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> CsvRowReader.open(file, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> CsvRowReader.open(file, -1, 2));
+    }
+
+    private List<String> ids(Path file, int partitionIndex, int partitionCount) throws IOException {
+        try (Stream<String[]> rows = CsvRowReader.open(file, partitionIndex, partitionCount).stream()) {
+            return rows.map(row -> row[0]).toList();
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(directory, "rows", ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,117 @@
+package utils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for indexing and lazily reading JSON test data with {@link TestDataStore}
+ */
+public class TestDataStoreTest {
+    private static final String DATA = """
+            {
+              "GURU": {
+                "base_url": "https://demo.guru99.com/v4",
+                "user": { "id": "mngr1", "roles": ["admin", "viewer"] },
+                "retries": 3,
+                "enabled": true,
+                "note": null
+              },
+              "AUTOMATION_DEMO": {
+                "base_url": "https://demo.automationtesting.in",
+                "quote \\"key\\"": "escaped",
+                "pages": [ { "name": "alerts" }, { "name": "date picker" } ]
+              },
+              "EMPTY": {}
+            }
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Tag("unit")
+    public void indexesTopLevelAndSecondLevelKeysInFileOrder() throws IOException {
+        TestDataStore store = TestDataStore.of(write(DATA));
+        assertEquals(List.of("GURU", "AUTOMATION_DEMO", "EMPTY"), List.copyOf(store.keys()));
+        assertEquals(List.of("base_url", "user", "retries", "enabled", "note"), List.copyOf(store.keys("GURU")));
+        assertEquals(List.of("base_url", "quote \"key\"", "pages"), List.copyOf(store.keys("AUTOMATION_DEMO")));
+        assertTrue(store.keys("EMPTY").isEmpty());
+    }
+
+    @Test
+    @Tag("unit")
+    public void readsValuesOfEveryType() throws IOException {
+        TestDataStore store = TestDataStore.of(write(DATA));
+        assertEquals("https://demo.guru99.com/v4", store.getString("GURU", "base_url"));
+        assertEquals(3, store.get("GURU", "retries"));
+        assertEquals(Boolean.TRUE, store.get("GURU", "enabled"));
+        assertSame(JSONObject.NULL, store.get("GURU", "note"));
+        assertNull(store.getString("GURU", "note"));
+        assertEquals("3", store.getString("GURU", "retries"));
+        assertEquals("escaped", store.getString("AUTOMATION_DEMO", "quote \"key\""));
+
+        JSONObject user = store.getObject("GURU", "user");
+        assertEquals("mngr1", user.getString("id"));
+        assertEquals(2, user.getJSONArray("roles").length());
+        JSONArray pages = store.getArray("AUTOMATION_DEMO", "pages");
+        assertEquals("date picker", pages.getJSONObject(1).getString("name"));
+        assertEquals(new JSONObject(DATA).getJSONObject("GURU").toMap(), store.getObject("GURU").toMap());
+    }
+
+    @Test
+    @Tag("unit")
+    public void cachesStoresAndMaterializedValues() throws IOException {
+        String file = write(DATA);
+        TestDataStore store = TestDataStore.of(file);
+        assertSame(store, TestDataStore.of(file));
+        assertSame(store.getObject("GURU", "user"), store.getObject("GURU", "user"));
+    }
+
+    @Test
+    @Tag("unit")
+    public void reportsMissingPaths() throws IOException {
+        TestDataStore store = TestDataStore.of(write(DATA));
+        assertTrue(store.has("GURU", "user"));
+        assertFalse(store.has("GURU", "password"));
+        assertFalse(store.has("GURU", "user", "id"));
+        assertThrows(IllegalArgumentException.class, () -> store.get("GURU", "password"));
+        assertThrows(IllegalArgumentException.class, () -> store.keys("MISSING"));
+    }
+
+    @Test
+    @Tag("unit")
+    public void rejectsMalformedFiles() throws IOException {
+        String missingColon = write("{ \"GURU\" { \"base_url\": \"x\" } }");
+        assertThrows(IllegalStateException.class, () -> TestDataStore.of(missingColon));
+        String truncated = write("{ \"GURU\": { \"base_url\": \"x\"");
+        assertThrows(IllegalStateException.class, () -> TestDataStore.of(truncated));
+        String missingComma = write("{ \"GURU\": { \"base_url\": \"x\" \"user\": \"y\" } }");
+        assertThrows(IllegalStateException.class, () -> TestDataStore.of(missingComma));
+        String wrongSeparator = write("{ \"GURU\": { \"roles\": [\"admin\"; \"viewer\"] } }");
+        assertThrows(IllegalStateException.class, () -> TestDataStore.of(wrongSeparator));
+        String wrongBracket = write("{ \"GURU\": { \"base_url\": \"x\" ] }");
+        assertThrows(IllegalStateException.class, () -> TestDataStore.of(wrongBracket));
+    }
+
+    private String write(String content) throws IOException {
+        Path file = Files.createTempFile(directory, "data", ".json");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file.toString();
+    }
+}